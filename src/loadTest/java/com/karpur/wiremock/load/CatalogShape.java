@@ -0,0 +1,79 @@
+package com.karpur.wiremock.load;
+
+/**
+ * Size and shape of a {@link SyntheticCatalog}. Every value can be overridden with a "loadtest." system property
+ * (Example : -Dloadtest.catalogSize=500000).
+ */
+public class CatalogShape {
+
+    private final int catalogSize;
+    private final int firstYear;
+    private final int lastYear;
+    private final int actorPoolSize;
+    private final int castSize;
+    private final int moviesPerTitle;
+    private final long seed;
+
+    public CatalogShape(int catalogSize, int firstYear, int lastYear, int actorPoolSize, int castSize,
+                        int moviesPerTitle, long seed) {
+        this.catalogSize = catalogSize;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.actorPoolSize = actorPoolSize;
+        this.castSize = castSize;
+        this.moviesPerTitle = moviesPerTitle;
+        this.seed = seed;
+    }
+
+    public static CatalogShape fromSystemProperties() {
+        return new CatalogShape(
+            Integer.getInteger("loadtest.catalogSize", 50_000),
+            Integer.getInteger("loadtest.firstYear", 1950),
+            Integer.getInteger("loadtest.lastYear", 2019),
+            Integer.getInteger("loadtest.actorPoolSize", 20_000),
+            Integer.getInteger("loadtest.castSize", 4),
+            Integer.getInteger("loadtest.moviesPerTitle", 4),
+            Long.getLong("loadtest.seed", 42L));
+    }
+
+    public int getCatalogSize() {
+        return catalogSize;
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * @return - number of distinct actor names the cast lists are drawn from
+     */
+    public int getActorPoolSize() {
+        return actorPoolSize;
+    }
+
+    public int getCastSize() {
+        return castSize;
+    }
+
+    /**
+     * @return - how many movies share a title (sequels / remakes), i.e. the size of a by-name result
+     */
+    public int getMoviesPerTitle() {
+        return moviesPerTitle;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogShape{catalogSize=" + catalogSize + ", years=" + firstYear + "-" + lastYear
+            + ", actorPoolSize=" + actorPoolSize + ", castSize=" + castSize + ", moviesPerTitle=" + moviesPerTitle
+            + ", seed=" + seed + '}';
+    }
+}
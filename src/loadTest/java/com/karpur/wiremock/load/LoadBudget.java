@@ -0,0 +1,65 @@
+package com.karpur.wiremock.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latency and throughput limits a {@link LoadTestResult} has to stay within. Defaults can be overridden per
+ * operation (Example : -Dloadtest.retrieveAllMovies.p99Millis=2000) or for every operation
+ * (Example : -Dloadtest.p99Millis=200).
+ */
+public class LoadBudget {
+
+    private final long p50Millis;
+    private final long p99Millis;
+    private final long p999Millis;
+    private final double minThroughputRatio;
+    private final double maxErrorRate;
+
+    public LoadBudget(long p50Millis, long p99Millis, long p999Millis, double minThroughputRatio, double maxErrorRate) {
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.p999Millis = p999Millis;
+        this.minThroughputRatio = minThroughputRatio;
+        this.maxErrorRate = maxErrorRate;
+    }
+
+    public static LoadBudget forOperation(String operation, long p50Millis, long p99Millis, long p999Millis) {
+        return new LoadBudget(
+            LoadSettings.getLong(operation, "p50Millis", p50Millis),
+            LoadSettings.getLong(operation, "p99Millis", p99Millis),
+            LoadSettings.getLong(operation, "p999Millis", p999Millis),
+            LoadSettings.getDouble(operation, "minThroughputRatio", 0.9),
+            LoadSettings.getDouble(operation, "maxErrorRate", 0.0));
+    }
+
+    /**
+     * @return - one message per exceeded limit, empty when the result is within budget
+     */
+    public List<String> violations(LoadTestResult result) {
+        List<String> violations = new ArrayList<>();
+        check(violations, result, "p50", result.percentileMillis(50), p50Millis);
+        check(violations, result, "p99", result.percentileMillis(99), p99Millis);
+        check(violations, result, "p999", result.percentileMillis(99.9), p999Millis);
+        if (result.getThroughput() < result.getTargetRate() * minThroughputRatio) {
+            violations.add(String.format("%s throughput %.1f/s is below %.0f%% of the %.0f/s target",
+                result.getOperation(), result.getThroughput(), minThroughputRatio * 100, result.getTargetRate()));
+        }
+        if (result.getTimeouts() > 0) {
+            violations.add(String.format("%s %d calls had not completed at the drain timeout", result.getOperation(),
+                result.getTimeouts()));
+        }
+        if (result.getErrorRate() > maxErrorRate) {
+            violations.add(String.format("%s error rate %.4f exceeds %.4f", result.getOperation(), result.getErrorRate(),
+                maxErrorRate));
+        }
+        return violations;
+    }
+
+    private static void check(List<String> violations, LoadTestResult result, String percentile, long actual, long budget) {
+        if (actual > budget) {
+            violations.add(String.format("%s %s latency %dms exceeds budget %dms", result.getOperation(), percentile,
+                actual, budget));
+        }
+    }
+}
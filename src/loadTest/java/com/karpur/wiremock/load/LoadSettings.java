@@ -0,0 +1,25 @@
+package com.karpur.wiremock.load;
+
+/**
+ * Reads "loadtest." system properties, preferring the operation specific key over the global one.
+ */
+final class LoadSettings {
+
+    private LoadSettings() {
+    }
+
+    static long getLong(String operation, String key, long defaultValue) {
+        String value = lookup(operation, key);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    static double getDouble(String operation, String key, double defaultValue) {
+        String value = lookup(operation, key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    private static String lookup(String operation, String key) {
+        String value = System.getProperty("loadtest." + operation + "." + key);
+        return value != null ? value : System.getProperty("loadtest." + key);
+    }
+}
@@ -0,0 +1,78 @@
+package com.karpur.wiremock.load;
+
+import com.karpur.wiremock.timing.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of one open-loop run. Latencies are measured from each call's intended start time, so queueing behind
+ * slow calls is included (coordinated-omission corrected). Calls that had not completed at the drain timeout count
+ * as timeouts and are part of the latency histogram.
+ */
+public class LoadTestResult {
+
+    private final String operation;
+    private final double targetRate;
+    private final LatencyHistogram latency;
+    private final long completed;
+    private final long errors;
+    private final long timeouts;
+    private final long elapsedNanos;
+
+    public LoadTestResult(String operation, double targetRate, LatencyHistogram latency, long completed, long errors,
+                          long timeouts, long elapsedNanos) {
+        this.operation = operation;
+        this.targetRate = targetRate;
+        this.latency = latency;
+        this.completed = completed;
+        this.errors = errors;
+        this.timeouts = timeouts;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return - calls that had not completed at the drain timeout
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : completed * 1e9 / elapsedNanos;
+    }
+
+    public double getErrorRate() {
+        return completed == 0 ? 0 : (double) errors / completed;
+    }
+
+    public long percentileMillis(double percentile) {
+        return TimeUnit.NANOSECONDS.toMillis(latency.getValueAtPercentile(percentile));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-20s target=%.0f/s achieved=%.1f/s completed=%d errors=%d timeouts=%d p50=%dms p99=%dms p999=%dms max=%dms",
+            operation, targetRate, getThroughput(), completed, errors, timeouts, percentileMillis(50), percentileMillis(99),
+            percentileMillis(99.9), TimeUnit.NANOSECONDS.toMillis(latency.getMaxNanos()));
+    }
+}
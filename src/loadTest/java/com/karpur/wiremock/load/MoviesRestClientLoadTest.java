@@ -0,0 +1,145 @@
+package com.karpur.wiremock.load;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.service.MoviesRestClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives every MoviesRestClient operation in open loop against an in-process WireMock serving a synthetic catalog,
+ * and fails when an operation exceeds its latency / throughput budget.
+ *
+ * Run with : ./gradlew loadTest -Dloadtest.catalogSize=500000 -Dloadtest.concurrency=1000 -Dloadtest.seconds=30
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MoviesRestClientLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MoviesRestClientLoadTest.class);
+
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 1000);
+    private final int warmUpSeconds = Integer.getInteger("loadtest.warmUpSeconds", 3);
+    private final int seconds = Integer.getInteger("loadtest.seconds", 10);
+
+    SyntheticCatalog catalog;
+    WireMockServer wireMockServer;
+    ConnectionProvider connectionProvider;
+    MoviesRestClient moviesRestClient;
+    OpenLoopLoadGenerator loadGenerator;
+
+    @BeforeAll
+    void setUp() {
+        CatalogShape shape = CatalogShape.fromSystemProperties();
+        long start = System.currentTimeMillis();
+        catalog = new SyntheticCatalog(shape);
+        LOGGER.info("Generated {} ({} bytes for all movies) in {}ms", shape, catalog.getAllMoviesJson().length,
+            System.currentTimeMillis() - start);
+
+        wireMockServer = new WireMockServer(wireMockConfig()
+            .dynamicPort()
+            .containerThreads(Integer.getInteger("loadtest.containerThreads", 200))
+            .jettyAcceptors(Runtime.getRuntime().availableProcessors())
+            .jettyAcceptQueueSize(concurrency)
+            .disableRequestJournal()
+            .extensions(new SyntheticCatalogTransformer(catalog)));
+        wireMockServer.start();
+        wireMockServer.stubFor(any(anyUrl()).willReturn(aResponse().withTransformers(SyntheticCatalogTransformer.NAME)));
+
+        connectionProvider = ConnectionProvider.fixed("movies-load-test", concurrency);
+        WebClient webClient = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+            .baseUrl(wireMockServer.baseUrl())
+            .build();
+        moviesRestClient = new MoviesRestClient(webClient);
+        loadGenerator = new OpenLoopLoadGenerator(concurrency);
+    }
+
+    @AfterAll
+    void tearDown() {
+        connectionProvider.dispose();
+        wireMockServer.stop();
+    }
+
+    @Test
+    void retrieveMovieById() throws InterruptedException {
+        run("retrieveMovieById", 500, 50, 200, 500,
+            i -> moviesRestClient.retrieveMovieById((int) (1 + i % catalog.size())));
+    }
+
+    @Test
+    void retrieveMovieByName() throws InterruptedException {
+        run("retrieveMovieByName", 200, 50, 200, 500,
+            i -> moviesRestClient.retrieveMovieByName(catalog.titleAt((int) i)));
+    }
+
+    @Test
+    void retrieveMovieByYear() throws InterruptedException {
+        CatalogShape shape = catalog.getShape();
+        int years = shape.getLastYear() - shape.getFirstYear() + 1;
+        run("retrieveMovieByYear", 50, 200, 1000, 2000,
+            i -> moviesRestClient.retrieveMovieByYear(shape.getFirstYear() + (int) (i % years)));
+    }
+
+    @Test
+    void retrieveAllMovies() throws InterruptedException {
+        run("retrieveAllMovies", 2, 2000, 5000, 5000, i -> {
+            List<Movie> movies = moviesRestClient.retrieveAllMovies();
+            if (movies.size() != catalog.size()) {
+                throw new IllegalStateException("Expected " + catalog.size() + " movies but got " + movies.size());
+            }
+        });
+    }
+
+    @Test
+    void addNewMovie() throws InterruptedException {
+        run("addNewMovie", 200, 50, 200, 500,
+            i -> moviesRestClient.addNewMovie(new Movie(null, "Load Test " + i, 2019, "Tom Hanks, Tim Allen",
+                LocalDate.of(2019, 6, 20))));
+    }
+
+    @Test
+    void updateMovie() throws InterruptedException {
+        run("updateMovie", 200, 50, 200, 500,
+            i -> moviesRestClient.updateMovie((int) (1 + i % catalog.size()),
+                new Movie(null, null, null, "Updated Cast " + i, null)));
+    }
+
+    @Test
+    void deleteMovieById() throws InterruptedException {
+        run("deleteMovieById", 200, 50, 200, 500,
+            i -> moviesRestClient.deleteMovieById((int) (1 + i % catalog.size())));
+    }
+
+    @Test
+    void deleteMovieByName() throws InterruptedException {
+        run("deleteMovieByName", 200, 50, 200, 500,
+            i -> moviesRestClient.deleteMovieByName(catalog.titleAt((int) i)));
+    }
+
+    private void run(String operation, double defaultRate, long p50Millis, long p99Millis, long p999Millis,
+                     LongConsumer call) throws InterruptedException {
+        double rate = LoadSettings.getDouble(operation, "rate", defaultRate);
+        LoadTestResult result = loadGenerator.run(operation, rate, warmUpSeconds, seconds, call);
+        LOGGER.info("{}", result);
+        List<String> violations = LoadBudget.forOperation(operation, p50Millis, p99Millis, p999Millis).violations(result);
+        assertTrue(violations.isEmpty(), String.join("\n", violations));
+    }
+}
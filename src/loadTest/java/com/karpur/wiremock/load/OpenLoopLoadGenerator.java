@@ -0,0 +1,134 @@
+package com.karpur.wiremock.load;
+
+import com.karpur.wiremock.timing.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * Fires calls on a fixed schedule regardless of how long earlier calls take (open loop), using a pool of
+ * {@code concurrency} blocking callers.
+ *
+ * Each call is timed from the moment it was scheduled to start, not from when a caller picked it up. When the
+ * client falls behind, the time calls spend queued shows up in the latency instead of silently lowering the
+ * offered load, which is what a closed-loop benchmark would report (coordinated omission). Calls still outstanding
+ * at the drain timeout are recorded as timeouts, with the time elapsed since their intended start as latency.
+ *
+ * Warm-up calls run on their own callers, which are stopped before the measured schedule starts, so a slow
+ * warm-up never competes with the measured calls.
+ */
+public class OpenLoopLoadGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpenLoopLoadGenerator.class);
+
+    private final int concurrency;
+
+    public OpenLoopLoadGenerator(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param operation    - name used in the report
+     * @param ratePerSecond - target number of calls started per second
+     * @param warmUpSeconds - calls made during warm-up are executed but not recorded, and finish before the
+     *                      measured calls start
+     * @param seconds      - measured duration
+     * @param call         - the call to make, given a monotonically increasing call index
+     */
+    public LoadTestResult run(String operation, double ratePerSecond, int warmUpSeconds, int seconds, LongConsumer call)
+        throws InterruptedException {
+        if (warmUpSeconds > 0) {
+            ExecutorService warmUpCallers = callers(operation + "-warmup");
+            try {
+                schedule(warmUpCallers, ratePerSecond, warmUpSeconds, call, new LatencyHistogram(), new AtomicLong());
+            } finally {
+                warmUpCallers.shutdownNow();
+            }
+            if (!warmUpCallers.awaitTermination(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Warm-up calls of " + operation + " still in flight after 30s");
+            }
+        }
+        ExecutorService callers = callers(operation);
+        try {
+            LatencyHistogram latency = new LatencyHistogram();
+            AtomicLong errors = new AtomicLong();
+            long start = System.nanoTime();
+            long timeouts = schedule(callers, ratePerSecond, seconds, call, latency, errors);
+            long elapsed = System.nanoTime() - start;
+            if (timeouts > 0) {
+                LOGGER.warn("{} : {} of {} scheduled calls had not completed at the drain timeout", operation,
+                    timeouts, latency.getCount());
+            }
+            return new LoadTestResult(operation, ratePerSecond, latency, latency.getCount() - timeouts, errors.get(),
+                timeouts, elapsed);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private ExecutorService callers(String name) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "load-" + name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return - number of calls that had not completed at the drain timeout
+     */
+    private long schedule(ExecutorService callers, double ratePerSecond, int seconds, LongConsumer call,
+                          LatencyHistogram latency, AtomicLong errors) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        int total = (int) (ratePerSecond * seconds);
+        CountDownLatch done = new CountDownLatch(total);
+        // 1 once the latency of the call is recorded, by the call itself or by the drain timeout
+        AtomicIntegerArray recorded = new AtomicIntegerArray(total);
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int index = i;
+            callers.execute(() -> {
+                try {
+                    call.accept(index);
+                } catch (RuntimeException ex) {
+                    if (errors.getAndIncrement() == 0) {
+                        LOGGER.warn("First failed call", ex);
+                    }
+                } finally {
+                    if (recorded.compareAndSet(index, 0, 1)) {
+                        latency.record(System.nanoTime() - intendedStart);
+                    }
+                    done.countDown();
+                }
+            });
+        }
+        if (done.await(Math.max(30, seconds), TimeUnit.SECONDS)) {
+            return 0;
+        }
+        // the slowest calls of the run, leaving them out would understate the tail
+        long timeouts = 0;
+        long now = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            if (recorded.compareAndSet(i, 0, 1)) {
+                latency.record(now - (start + i * intervalNanos));
+                timeouts++;
+            }
+        }
+        return timeouts;
+    }
+}
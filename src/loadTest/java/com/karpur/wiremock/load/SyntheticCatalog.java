@@ -0,0 +1,99 @@
+package com.karpur.wiremock.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.karpur.wiremock.dto.Movie;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic, in-memory movie catalog generated from a {@link CatalogShape}, indexed the same ways the movie
+ * service can be queried (id, name, year). The all-movies payload is serialized once up front because it is
+ * by far the largest response.
+ */
+public class SyntheticCatalog {
+
+    static final ObjectMapper MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final CatalogShape shape;
+    private final Map<Long, Movie> byId = new HashMap<>();
+    private final Map<String, List<Movie>> byName = new HashMap<>();
+    private final Map<Integer, List<Movie>> byYear = new HashMap<>();
+    private final List<String> titles = new ArrayList<>();
+    private final byte[] allMoviesJson;
+
+    public SyntheticCatalog(CatalogShape shape) {
+        this.shape = shape;
+        Random random = new Random(shape.getSeed());
+        String[] actors = new String[shape.getActorPoolSize()];
+        for (int i = 0; i < actors.length; i++) {
+            actors[i] = "Actor" + i + " Surname" + (i % 997);
+        }
+        int years = shape.getLastYear() - shape.getFirstYear() + 1;
+        List<Movie> movies = new ArrayList<>(shape.getCatalogSize());
+        for (int i = 0; i < shape.getCatalogSize(); i++) {
+            String title = "Synthetic Movie " + (i / shape.getMoviesPerTitle());
+            int year = shape.getFirstYear() + random.nextInt(years);
+            StringBuilder cast = new StringBuilder();
+            for (int c = 0; c < shape.getCastSize(); c++) {
+                cast.append(c == 0 ? "" : ", ").append(actors[random.nextInt(actors.length)]);
+            }
+            Movie movie = new Movie((long) i + 1, title, year, cast.toString(),
+                LocalDate.of(year, 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            movies.add(movie);
+            byId.put(movie.getMovie_id(), movie);
+            byYear.computeIfAbsent(year, y -> new ArrayList<>()).add(movie);
+            byName.computeIfAbsent(title, t -> {
+                titles.add(t);
+                return new ArrayList<>();
+            }).add(movie);
+        }
+        this.allMoviesJson = toJson(movies);
+    }
+
+    public CatalogShape getShape() {
+        return shape;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public Movie byId(long movieId) {
+        return byId.get(movieId);
+    }
+
+    public List<Movie> byName(String name) {
+        return byName.getOrDefault(name, Collections.emptyList());
+    }
+
+    public List<Movie> byYear(int year) {
+        return byYear.getOrDefault(year, Collections.emptyList());
+    }
+
+    public String titleAt(int index) {
+        return titles.get(index % titles.size());
+    }
+
+    public byte[] getAllMoviesJson() {
+        return allMoviesJson;
+    }
+
+    static byte[] toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize synthetic catalog", e);
+        }
+    }
+}
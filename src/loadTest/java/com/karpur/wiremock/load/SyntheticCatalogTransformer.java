@@ -0,0 +1,112 @@
+package com.karpur.wiremock.load;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.karpur.wiremock.dto.Movie;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.karpur.wiremock.constants.MoviesAppConstants.*;
+
+/**
+ * Answers every movie service endpoint from a {@link SyntheticCatalog}, so a single catch-all stub can serve a
+ * catalog far too large to register as individual stubs. Writes are echoed back but never applied, which keeps
+ * the catalog identical for the whole run.
+ */
+public class SyntheticCatalogTransformer extends ResponseDefinitionTransformer {
+
+    public static final String NAME = "synthetic-catalog";
+
+    private static final String MOVIE_PATH_PREFIX = ADD_MOVIE_V1 + "/";
+
+    private final SyntheticCatalog catalog;
+    private final AtomicLong nextMovieId;
+
+    public SyntheticCatalogTransformer(SyntheticCatalog catalog) {
+        this.catalog = catalog;
+        this.nextMovieId = new AtomicLong(catalog.size() + 1L);
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition, FileSource files,
+                                        Parameters parameters) {
+        String url = request.getUrl();
+        String path = url.contains("?") ? url.substring(0, url.indexOf('?')) : url;
+        RequestMethod method = request.getMethod();
+
+        if (RequestMethod.GET.equals(method) && path.equals(GET_ALL_MOVIES_V1)) {
+            return json(200, catalog.getAllMoviesJson());
+        }
+        if (RequestMethod.GET.equals(method) && path.startsWith(MOVIE_PATH_PREFIX)) {
+            Movie movie = catalog.byId(Long.parseLong(path.substring(MOVIE_PATH_PREFIX.length())));
+            return movie == null ? notFound("No Movie Available with the given Id") : json(200, SyntheticCatalog.toJson(movie));
+        }
+        if (RequestMethod.GET.equals(method) && path.equals(MOVIE_BY_NAME_QUERY_PARAM_V1)) {
+            return list(catalog.byName(queryParameter(request, "movie_name")), "No Movie Available with the given name");
+        }
+        if (RequestMethod.GET.equals(method) && path.equals(MOVIE_BY_YEAR_QUERY_PARAM_V1)) {
+            return list(catalog.byYear(Integer.parseInt(queryParameter(request, "year"))), "No Movie Available with the given year");
+        }
+        if (RequestMethod.POST.equals(method) && path.equals(ADD_MOVIE_V1)) {
+            Movie movie = readMovie(request);
+            movie.setMovie_id(nextMovieId.getAndIncrement());
+            return json(200, SyntheticCatalog.toJson(movie));
+        }
+        if (RequestMethod.PUT.equals(method) && path.startsWith(MOVIE_PATH_PREFIX)) {
+            Movie movie = readMovie(request);
+            movie.setMovie_id(Long.parseLong(path.substring(MOVIE_PATH_PREFIX.length())));
+            return json(200, SyntheticCatalog.toJson(movie));
+        }
+        if (RequestMethod.DELETE.equals(method)) {
+            return new ResponseDefinitionBuilder().withStatus(200).withBody("Movie Deleted Successfully").build();
+        }
+        return notFound("Unknown endpoint " + method + " " + path);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    private static String queryParameter(Request request, String key) {
+        QueryParameter parameter = request.queryParameter(key);
+        return parameter.isPresent() ? parameter.firstValue() : "";
+    }
+
+    private static Movie readMovie(Request request) {
+        try {
+            return SyntheticCatalog.MAPPER.readValue(request.getBody(), Movie.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid movie payload", e);
+        }
+    }
+
+    private static ResponseDefinition list(List<Movie> movies, String notFoundMessage) {
+        return movies.isEmpty() ? notFound(notFoundMessage) : json(200, SyntheticCatalog.toJson(movies));
+    }
+
+    private static ResponseDefinition notFound(String message) {
+        return new ResponseDefinitionBuilder().withStatus(404).withBody(message).build();
+    }
+
+    private static ResponseDefinition json(int status, byte[] body) {
+        return new ResponseDefinitionBuilder()
+            .withStatus(status)
+            .withHeader("Content-Type", "application/json")
+            .withBody(body)
+            .build();
+    }
+}
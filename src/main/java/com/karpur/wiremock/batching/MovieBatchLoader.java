@@ -0,0 +1,251 @@
+package com.karpur.wiremock.batching;
+
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.exception.MovieErrorResponse;
+import com.karpur.wiremock.service.MoviesRestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataLoader-style batching in front of {@link MoviesRestClient#retrieveMovieById(Integer)}.
+ *
+ * Lookups are collected for {@link MovieBatchLoaderOptions#getWindow()} after the first one, or until
+ * {@link MovieBatchLoaderOptions#getMaxBatchSize()} distinct ids are waiting, and then sent as one
+ * {@link MoviesRestClient#retrieveMoviesByIds} request. When the service has no multi-id endpoint the batch is fanned
+ * out as single lookups, at most {@link MovieBatchLoaderOptions#getMaxConcurrency()} at a time. Lookups of the same id
+ * inside a window share one future.
+ */
+public class MovieBatchLoader implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MovieBatchLoader.class);
+
+    private final MoviesRestClient moviesRestClient;
+    private final MovieBatchLoaderOptions options;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+
+    private Map<Integer, CompletableFuture<Movie>> batch = new LinkedHashMap<>();
+    private boolean closed;
+    // null until the first multi-id request of AUTO mode tells
+    private volatile Boolean multiIdSupported;
+
+    public MovieBatchLoader(MoviesRestClient moviesRestClient) {
+        this(moviesRestClient, MovieBatchLoaderOptions.defaults());
+    }
+
+    public MovieBatchLoader(MoviesRestClient moviesRestClient, MovieBatchLoaderOptions options) {
+        this.moviesRestClient = moviesRestClient;
+        this.options = options;
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("movie-batch-loader-timer"));
+        this.workers = Executors.newFixedThreadPool(options.getMaxConcurrency(), daemonThreads("movie-batch-loader"));
+        if (options.getMultiIdRequests() != MovieBatchLoaderOptions.MultiIdRequests.AUTO) {
+            this.multiIdSupported = options.getMultiIdRequests() == MovieBatchLoaderOptions.MultiIdRequests.ALWAYS;
+        }
+    }
+
+    /**
+     * @return - completes with the movie, or exceptionally with a {@link MovieErrorResponse}, also once closed
+     */
+    public CompletableFuture<Movie> load(Integer movieId) {
+        Map<Integer, CompletableFuture<Movie>> full = null;
+        CompletableFuture<Movie> future;
+        synchronized (this) {
+            if (closed) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(new MovieErrorResponse(
+                    new IllegalStateException("Movie batch loader is closed")));
+                return future;
+            }
+            future = batch.get(movieId);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            batch.put(movieId, future);
+            if (batch.size() >= options.getMaxBatchSize()) {
+                full = swap();
+            } else if (batch.size() == 1) {
+                Map<Integer, CompletableFuture<Movie>> opened = batch;
+                timer.schedule(() -> dispatchIfCurrent(opened), options.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    /**
+     * Blocking lookup with the same error handling as {@link MoviesRestClient#retrieveMovieById(Integer)}.
+     */
+    public Movie retrieveMovieById(Integer movieId) {
+        try {
+            return load(movieId).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof MovieErrorResponse) {
+                throw (MovieErrorResponse) ex.getCause();
+            }
+            throw new MovieErrorResponse(ex.getCause());
+        }
+    }
+
+    /**
+     * Sends the lookups waiting for their window right away.
+     */
+    public void dispatchNow() {
+        Map<Integer, CompletableFuture<Movie>> waiting;
+        synchronized (this) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            waiting = swap();
+        }
+        dispatch(waiting);
+    }
+
+    /**
+     * Sends the lookups still waiting; later loads fail right away.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        dispatchNow();
+        timer.shutdownNow();
+        workers.shutdown();
+    }
+
+    private Map<Integer, CompletableFuture<Movie>> swap() {
+        Map<Integer, CompletableFuture<Movie>> full = batch;
+        batch = new LinkedHashMap<>();
+        return full;
+    }
+
+    private void dispatchIfCurrent(Map<Integer, CompletableFuture<Movie>> opened) {
+        synchronized (this) {
+            // already sent because it filled up before its window ended
+            if (batch != opened) {
+                return;
+            }
+            swap();
+        }
+        dispatch(opened);
+    }
+
+    private void dispatch(Map<Integer, CompletableFuture<Movie>> lookups) {
+        LOGGER.debug("Dispatching {} movie lookups ", lookups.size());
+        try {
+            if (lookups.size() > 1 && !Boolean.FALSE.equals(multiIdSupported)) {
+                workers.execute(() -> loadMany(lookups));
+            } else {
+                fanOut(lookups, false);
+            }
+        } catch (RejectedExecutionException ex) {
+            lookups.values().forEach(future -> future.completeExceptionally(new MovieErrorResponse(ex)));
+        }
+    }
+
+    private void loadMany(Map<Integer, CompletableFuture<Movie>> lookups) {
+        List<Movie> movies;
+        try {
+            movies = moviesRestClient.retrieveMoviesByIds(new ArrayList<>(lookups.keySet()));
+        } catch (MovieErrorResponse ex) {
+            if (multiIdSupported == null && isNotFound(ex)) {
+                // also how the service answers when none of the ids exist, so only single lookups can tell
+                fanOut(lookups, true);
+            } else if (multiIdSupported == null && isMissingEndpoint(ex)) {
+                LOGGER.info("Movie service has no multi-id endpoint, falling back to single lookups ");
+                multiIdSupported = false;
+                fanOut(lookups, false);
+            } else {
+                lookups.values().forEach(future -> future.completeExceptionally(ex));
+            }
+            return;
+        }
+        multiIdSupported = true;
+        Map<Long, Movie> byId = new HashMap<>();
+        movies.forEach(movie -> byId.put(movie.getMovie_id(), movie));
+        lookups.forEach((movieId, future) -> {
+            Movie movie = byId.get(movieId.longValue());
+            if (movie != null) {
+                future.complete(movie);
+            } else {
+                future.completeExceptionally(notFound(movieId));
+            }
+        });
+    }
+
+    /**
+     * @param probing - the multi-id endpoint answered 404 : a movie found here would have been in its answer, so the
+     *                endpoint is missing. When none is found the 404 may have meant no movies, and the next batch
+     *                asks again.
+     */
+    private void fanOut(Map<Integer, CompletableFuture<Movie>> lookups, boolean probing) {
+        // the fixed pool is what bounds the fan-out
+        lookups.forEach((movieId, future) -> workers.execute(() -> {
+            try {
+                Movie movie = moviesRestClient.retrieveMovieById(movieId);
+                if (probing && multiIdSupported == null) {
+                    LOGGER.info("Movie service has no multi-id endpoint, falling back to single lookups ");
+                    multiIdSupported = false;
+                }
+                future.complete(movie);
+            } catch (RuntimeException ex) {
+                future.completeExceptionally(ex);
+            }
+        }));
+    }
+
+    /**
+     * Same shape as the error of a single lookup of a movie the service does not have.
+     */
+    private static MovieErrorResponse notFound(Integer movieId) {
+        WebClientResponseException cause = WebClientResponseException.create(HttpStatus.NOT_FOUND.value(),
+            HttpStatus.NOT_FOUND.getReasonPhrase(), new HttpHeaders(),
+            ("No Movie Available with the given Id - " + movieId).getBytes(StandardCharsets.UTF_8),
+            StandardCharsets.UTF_8);
+        return new MovieErrorResponse(cause.getStatusText(), cause);
+    }
+
+    private static boolean isNotFound(MovieErrorResponse ex) {
+        return ex.getCause() instanceof WebClientResponseException
+            && ((WebClientResponseException) ex.getCause()).getRawStatusCode() == HttpStatus.NOT_FOUND.value();
+    }
+
+    private static boolean isMissingEndpoint(MovieErrorResponse ex) {
+        if (!(ex.getCause() instanceof WebClientResponseException)) {
+            return false;
+        }
+        int status = ((WebClientResponseException) ex.getCause()).getRawStatusCode();
+        return status == HttpStatus.METHOD_NOT_ALLOWED.value() || status == HttpStatus.NOT_IMPLEMENTED.value();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
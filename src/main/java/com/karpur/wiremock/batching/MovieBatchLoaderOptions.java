@@ -0,0 +1,51 @@
+package com.karpur.wiremock.batching;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link MovieBatchLoader}.
+ */
+@Getter
+@Builder
+@ToString
+public class MovieBatchLoaderOptions {
+
+    public enum MultiIdRequests {
+        /**
+         * Try the multi-id endpoint and switch to fan-out for good once the service turns out not to have it : a 405
+         * or 501, or a 404 for ids that single lookups then find.
+         */
+        AUTO,
+        ALWAYS,
+        NEVER
+    }
+
+    /**
+     * How long the first lookup of a batch waits for others to join it.
+     */
+    @Builder.Default
+    private final Duration window = Duration.ofMillis(5);
+
+    /**
+     * A batch is sent right away once it holds this many distinct ids.
+     */
+    @Builder.Default
+    private final int maxBatchSize = 50;
+
+    /**
+     * Calls in flight at the same time, shared by multi-id requests and fan-out lookups.
+     */
+    @Builder.Default
+    private final int maxConcurrency = 8;
+
+    @Builder.Default
+    private final MultiIdRequests multiIdRequests = MultiIdRequests.AUTO;
+
+    public static MovieBatchLoaderOptions defaults() {
+        return MovieBatchLoaderOptions.builder().build();
+    }
+}
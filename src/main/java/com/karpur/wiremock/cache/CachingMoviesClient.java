@@ -0,0 +1,343 @@
+package com.karpur.wiremock.cache;
+
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.exception.MovieChangesCursorExpiredException;
+import com.karpur.wiremock.exception.MovieErrorResponse;
+import com.karpur.wiremock.exception.MovieResponseTooLargeException;
+import com.karpur.wiremock.service.MoviesRestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache in front of the reads of {@link MoviesRestClient}.
+ *
+ * An entry younger than {@link MovieCacheOptions#getSoftTtl()} is served as is. Up to
+ * {@link MovieCacheOptions#getHardTtl()} it is still served, while a single background call refreshes it, so a slow
+ * or briefly failing movie service never holds up a read of a cached response. Past the hard TTL a read waits for
+ * the movie service, and falls back to the old entry for another {@link MovieCacheOptions#getStaleIfError()} if that
+ * call fails. Concurrent misses of the same key share one call.
+ *
+ * A 404 is remembered for {@link MovieCacheOptions#getNegativeTtl()}, so repeated lookups of an unknown id or name
+ * fail right away instead of reaching the movie service.
+ *
+ * Writes drop the entries they affect. A call that was already running for one of them, a background refresh or a
+ * shared miss, still answers its readers but does not store what it read, since the write may have changed it.
+ *
+ * The returned movies and lists are shared by all readers and must not be modified.
+ */
+public class CachingMoviesClient implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingMoviesClient.class);
+
+    private static final String ALL_MOVIES_KEY = "allMovies";
+    private static final String MOVIE_BY_ID_KEY = "movie:";
+
+    private final MoviesRestClient moviesRestClient;
+    private final MovieCacheOptions options;
+    private final MovieCacheMetrics metrics = new MovieCacheMetrics();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // the keys of the entries, oldest load first; guarded by this
+    private final Set<String> loadOrder = new LinkedHashSet<>();
+    private final Map<String, CompletableFuture<Entry>> loads = new ConcurrentHashMap<>();
+    // one per key with calls running; a write retires it, which tells those calls not to store their answer
+    private final Map<String, Generation> generations = new ConcurrentHashMap<>();
+    private final ExecutorService refreshers;
+
+    public CachingMoviesClient(MoviesRestClient moviesRestClient) {
+        this(moviesRestClient, MovieCacheOptions.defaults());
+    }
+
+    public CachingMoviesClient(MoviesRestClient moviesRestClient, MovieCacheOptions options) {
+        this.moviesRestClient = moviesRestClient;
+        this.options = options;
+        this.refreshers = Executors.newFixedThreadPool(options.getMaxConcurrentRefreshes(), daemonThreads("movie-cache-refresher"));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Movie> retrieveAllMovies() {
+        return (List<Movie>) get(ALL_MOVIES_KEY, () -> Collections.unmodifiableList(moviesRestClient.retrieveAllMovies()));
+    }
+
+    public Movie retrieveMovieById(Integer movieId) {
+        return (Movie) get(MOVIE_BY_ID_KEY + movieId, () -> moviesRestClient.retrieveMovieById(movieId));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Movie> retrieveMovieByName(String movieName) {
+        return (List<Movie>) get("name:" + movieName,
+            () -> Collections.unmodifiableList(moviesRestClient.retrieveMovieByName(movieName)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Movie> retrieveMovieByYear(Integer year) {
+        return (List<Movie>) get("year:" + year,
+            () -> Collections.unmodifiableList(moviesRestClient.retrieveMovieByYear(year)));
+    }
+
+    /**
+     * Adds the movie and drops the cached lists and the remembered 404 of its id.
+     */
+    public Movie addNewMovie(Movie newMovie) {
+        Movie movie = moviesRestClient.addNewMovie(newMovie);
+        invalidate(movie == null || movie.getMovie_id() == null ? null : Math.toIntExact(movie.getMovie_id()));
+        return movie;
+    }
+
+    public Movie updateMovie(Integer movieId, Movie movie) {
+        try {
+            return moviesRestClient.updateMovie(movieId, movie);
+        } finally {
+            invalidate(movieId);
+        }
+    }
+
+    public String deleteMovieById(Integer movieId) {
+        try {
+            return moviesRestClient.deleteMovieById(movieId);
+        } finally {
+            invalidate(movieId);
+        }
+    }
+
+    /**
+     * Drops the entry of the movie and every cached list, since any of them may hold the movie.
+     *
+     * @param movieId - null to only drop the lists
+     */
+    public void invalidate(Integer movieId) {
+        Predicate<String> affected = key -> !key.startsWith(MOVIE_BY_ID_KEY) || key.equals(MOVIE_BY_ID_KEY + movieId);
+        generations.keySet().removeIf(affected);
+        synchronized (this) {
+            entries.keySet().removeIf(affected);
+            loadOrder.removeIf(affected);
+        }
+    }
+
+    public void invalidateAll() {
+        generations.clear();
+        synchronized (this) {
+            entries.clear();
+            loadOrder.clear();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public MovieCacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        refreshers.shutdownNow();
+    }
+
+    private Object get(String key, Supplier<Object> loader) {
+        long now = options.getClock().millis();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (entry.notFound != null) {
+                if (age < options.getNegativeTtl().toMillis()) {
+                    metrics.negativeHit();
+                    throw copyOf(entry.notFound);
+                }
+            } else if (age < options.getSoftTtl().toMillis()) {
+                metrics.hit();
+                return entry.value;
+            } else if (age < options.getHardTtl().toMillis()) {
+                metrics.staleHit();
+                refreshInBackground(key, entry, loader);
+                return entry.value;
+            }
+        }
+        metrics.miss();
+        return load(key, entry, loader);
+    }
+
+    /**
+     * Calls the movie service once for all the readers that missed the key at the same time.
+     */
+    private Object load(String key, Entry expired, Supplier<Object> loader) {
+        CompletableFuture<Entry> load = new CompletableFuture<>();
+        CompletableFuture<Entry> running = loads.putIfAbsent(key, load);
+        if (running == null) {
+            try {
+                load.complete(call(key, loader));
+            } catch (RuntimeException ex) {
+                load.completeExceptionally(ex);
+            } finally {
+                loads.remove(key, load);
+            }
+        } else {
+            load = running;
+        }
+
+        Entry loaded;
+        try {
+            loaded = load.join();
+        } catch (CompletionException ex) {
+            MovieErrorResponse error = ex.getCause() instanceof MovieErrorResponse
+                ? (MovieErrorResponse) ex.getCause() : new MovieErrorResponse(ex.getCause());
+            if (isServableOnError(expired)) {
+                LOGGER.info("Serving the stale {} entry, the movie service failed : {} ", key, error.getMessage());
+                metrics.servedStaleOnError();
+                return expired.value;
+            }
+            throw running == null ? error : copyOf(error);
+        }
+        if (loaded.notFound != null) {
+            throw running == null ? loaded.notFound : copyOf(loaded.notFound);
+        }
+        return loaded.value;
+    }
+
+    private void refreshInBackground(String key, Entry stale, Supplier<Object> loader) {
+        if (!stale.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshers.execute(() -> {
+                try {
+                    call(key, loader);
+                    metrics.refreshed();
+                } catch (RuntimeException ex) {
+                    LOGGER.info("Refresh of the {} entry failed, keeping the stale one : {} ", key, ex.getMessage());
+                    metrics.refreshFailed();
+                    stale.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            stale.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Calls the movie service and stores what it answered, a 404 included, unless the key was written meanwhile.
+     */
+    private Entry call(String key, Supplier<Object> loader) {
+        Generation generation = generations.compute(key, (k, current) -> {
+            Generation started = current != null ? current : new Generation();
+            started.calls++;
+            return started;
+        });
+        Entry entry = null;
+        try {
+            try {
+                entry = new Entry(loader.get(), null, options.getClock().millis());
+            } catch (MovieErrorResponse ex) {
+                if (!isNotFound(ex)) {
+                    throw ex;
+                }
+                entry = new Entry(null, ex, options.getClock().millis());
+            }
+            return entry;
+        } finally {
+            Entry loaded = entry;
+            // under the lock of the key, so a write cannot retire the generation between the check and the store
+            generations.computeIfPresent(key, (k, current) -> {
+                if (current != generation) {
+                    return current;
+                }
+                if (loaded != null) {
+                    store(key, loaded);
+                }
+                return --current.calls == 0 ? null : current;
+            });
+        }
+    }
+
+    private boolean isServableOnError(Entry expired) {
+        if (expired == null || expired.notFound != null) {
+            return false;
+        }
+        long age = options.getClock().millis() - expired.loadedAt;
+        return age < options.getHardTtl().plus(options.getStaleIfError()).toMillis();
+    }
+
+    /**
+     * Stores the entry as the newest one, and drops the oldest ones while the cache is over its size.
+     */
+    private synchronized void store(String key, Entry entry) {
+        entries.put(key, entry);
+        loadOrder.remove(key);
+        loadOrder.add(key);
+        Iterator<String> oldest = loadOrder.iterator();
+        while (entries.size() > options.getMaxEntries() && oldest.hasNext()) {
+            entries.remove(oldest.next());
+            oldest.remove();
+        }
+    }
+
+    private static boolean isNotFound(MovieErrorResponse ex) {
+        return ex.getCause() instanceof WebClientResponseException
+            && ((WebClientResponseException) ex.getCause()).getRawStatusCode() == HttpStatus.NOT_FOUND.value();
+    }
+
+    // every reader gets its own exception, with its own stack trace, and of the same type
+    private static MovieErrorResponse copyOf(MovieErrorResponse ex) {
+        if (ex instanceof MovieResponseTooLargeException) {
+            MovieResponseTooLargeException tooLarge = (MovieResponseTooLargeException) ex;
+            return new MovieResponseTooLargeException(tooLarge.getEndpoint(), tooLarge.getMaxBytes(),
+                tooLarge.getBytesRead());
+        }
+        if (ex instanceof MovieChangesCursorExpiredException) {
+            return new MovieChangesCursorExpiredException(ex.getMessage(), ex.getCause());
+        }
+        if (ex.getClass() != MovieErrorResponse.class) {
+            // a type this method does not know how to copy, shared rather than turned into its base type
+            return ex;
+        }
+        return new MovieErrorResponse(ex.getMessage(), ex.getCause());
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class Generation {
+        // calls running under this generation, only changed under the lock of the key in generations
+        private int calls;
+    }
+
+    private static class Entry {
+        private final Object value;
+        // the 404 of the movie service, for negative entries
+        private final MovieErrorResponse notFound;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(Object value, MovieErrorResponse notFound, long loadedAt) {
+            this.value = value;
+            this.notFound = notFound;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.karpur.wiremock.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit and refresh counts of a {@link CachingMoviesClient}.
+ */
+public class MovieCacheMetrics {
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong staleOnError = new AtomicLong();
+
+    void hit() {
+        hits.incrementAndGet();
+    }
+
+    void staleHit() {
+        staleHits.incrementAndGet();
+    }
+
+    void negativeHit() {
+        negativeHits.incrementAndGet();
+    }
+
+    void miss() {
+        misses.incrementAndGet();
+    }
+
+    void refreshed() {
+        refreshes.incrementAndGet();
+    }
+
+    void refreshFailed() {
+        refreshFailures.incrementAndGet();
+    }
+
+    void servedStaleOnError() {
+        staleOnError.incrementAndGet();
+    }
+
+    /**
+     * @return - reads answered with an entry younger than the soft TTL
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return - reads answered with an entry between the soft and the hard TTL
+     */
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    /**
+     * @return - reads answered with a remembered 404
+     */
+    public long getNegativeHits() {
+        return negativeHits.get();
+    }
+
+    /**
+     * @return - reads that had to wait for the movie service
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    /**
+     * @return - reads answered with an entry past the hard TTL because the movie service failed
+     */
+    public long getStaleOnError() {
+        return staleOnError.get();
+    }
+}
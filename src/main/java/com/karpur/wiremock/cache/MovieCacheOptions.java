@@ -0,0 +1,56 @@
+package com.karpur.wiremock.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Settings of the {@link CachingMoviesClient}.
+ */
+@Getter
+@Builder
+@ToString
+public class MovieCacheOptions {
+
+    /**
+     * Up to this age an entry is served as is; after it the entry is still served, while one background call
+     * refreshes it.
+     */
+    @Builder.Default
+    private final Duration softTtl = Duration.ofSeconds(30);
+
+    /**
+     * From this age on an entry is no longer served without asking the movie service first.
+     */
+    @Builder.Default
+    private final Duration hardTtl = Duration.ofMinutes(5);
+
+    /**
+     * How long past {@link #hardTtl} an entry is kept to be served when the movie service fails. Duration.ZERO turns
+     * serving stale entries on errors off.
+     */
+    @Builder.Default
+    private final Duration staleIfError = Duration.ofMinutes(10);
+
+    /**
+     * How long a 404 of the movie service is remembered.
+     */
+    @Builder.Default
+    private final Duration negativeTtl = Duration.ofSeconds(10);
+
+    @Builder.Default
+    private final int maxEntries = 10_000;
+
+    @Builder.Default
+    private final int maxConcurrentRefreshes = 2;
+
+    @Builder.Default
+    private final Clock clock = Clock.systemUTC();
+
+    public static MovieCacheOptions defaults() {
+        return MovieCacheOptions.builder().build();
+    }
+}
@@ -8,4 +8,6 @@ public class MoviesAppConstants {
     public static final String MOVIE_BY_YEAR_QUERY_PARAM_V1 ="/movieservice/v1/movieYear";
     public static final String ADD_MOVIE_V1 ="/movieservice/v1/movie";
     public static final String MOVIE_BY_NAME_PATH_PARAM_V1 = "/movieservice/v1/movieName/{name}";
+    public static final String MOVIE_CHANGES_QUERY_PARAM_V1 = "/movieservice/v1/movieChanges";
+    public static final String MOVIES_BY_IDS_QUERY_PARAM_V1 = "/movieservice/v1/movies";
 }
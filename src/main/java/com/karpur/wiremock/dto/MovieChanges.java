@@ -0,0 +1,22 @@
+package com.karpur.wiremock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the catalog changes since a cursor. Asking again with {@link #getCursor()} returns what changed
+ * after this page; {@link #isHasMore()} says whether that is already known to be non empty.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieChanges {
+
+    private List<Movie> changed;
+    private List<Long> deleted;
+    private String cursor;
+    private boolean hasMore;
+}
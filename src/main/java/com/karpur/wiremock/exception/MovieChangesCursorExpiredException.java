@@ -0,0 +1,11 @@
+package com.karpur.wiremock.exception;
+
+/**
+ * The movie service no longer keeps the changes since the given cursor (410 Gone), so only a full download can
+ * bring a local copy up to date.
+ */
+public class MovieChangesCursorExpiredException extends MovieErrorResponse {
+    public MovieChangesCursorExpiredException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
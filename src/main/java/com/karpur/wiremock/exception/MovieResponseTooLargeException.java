@@ -0,0 +1,21 @@
+package com.karpur.wiremock.exception;
+
+import lombok.Getter;
+
+/**
+ * A response body grew past the size limit of its endpoint; the call was stopped before buffering the rest.
+ */
+@Getter
+public class MovieResponseTooLargeException extends MovieErrorResponse {
+
+    private final String endpoint;
+    private final long maxBytes;
+    private final long bytesRead;
+
+    public MovieResponseTooLargeException(String endpoint, long maxBytes, long bytesRead) {
+        super(String.format("Response of %s exceeded %d bytes (%d read)", endpoint, maxBytes, bytesRead), null);
+        this.endpoint = endpoint;
+        this.maxBytes = maxBytes;
+        this.bytesRead = bytesRead;
+    }
+}
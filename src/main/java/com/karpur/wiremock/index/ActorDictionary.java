@@ -0,0 +1,130 @@
+package com.karpur.wiremock.index;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Interned actor names, each stored once and known by an int id. Names are matched after trimming, collapsing
+ * runs of whitespace and ignoring case, so "Heath Ledger " and "heath  ledger" are the same actor; the spelling seen
+ * first is the one kept.
+ *
+ * An {@link ActorIndex} releases the actors that no longer play in any of its movies. Ids are never handed out again,
+ * so an id read by a concurrent lookup cannot turn into another actor.
+ */
+public class ActorDictionary {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern CAST_SEPARATOR = Pattern.compile(",");
+    private static final int[] NO_ACTORS = new int[0];
+
+    private final Map<String, Integer> idsByKey = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private int nextId;
+    private int size;
+
+    /**
+     * @return - the id of the actor, added to the dictionary if new, or -1 for a blank name
+     */
+    public int intern(String actor) {
+        String name = normalize(actor);
+        if (name.isEmpty()) {
+            return -1;
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        Integer id = idsByKey.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = idsByKey.get(key);
+            if (id != null) {
+                return id;
+            }
+            if (nextId == names.length) {
+                names = Arrays.copyOf(names, nextId * 2);
+            }
+            // the name is published before its id, so a reader that finds the id always finds the name
+            names[nextId] = name;
+            idsByKey.put(key, nextId);
+            size++;
+            return nextId++;
+        }
+    }
+
+    /**
+     * Forgets the actor; interning the name again gives a new id.
+     */
+    synchronized void release(int actorId) {
+        String name = names[actorId];
+        if (name != null) {
+            idsByKey.remove(name.toLowerCase(Locale.ROOT));
+            names[actorId] = null;
+            size--;
+        }
+    }
+
+    /**
+     * @return - the id of an actor already in the dictionary, or -1
+     */
+    public int idOf(String actor) {
+        Integer id = idsByKey.get(normalize(actor).toLowerCase(Locale.ROOT));
+        return id != null ? id : -1;
+    }
+
+    /**
+     * @return - the name of the actor, or null once released
+     */
+    public String nameOf(int actorId) {
+        return names[actorId];
+    }
+
+    /**
+     * @return - number of actors in the dictionary
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return - one more than the highest id handed out so far
+     */
+    synchronized int idLimit() {
+        return nextId;
+    }
+
+    /**
+     * Splits a comma separated cast list (Example : "Christian Bale, Katie Holmes , Liam Neeson") into actor ids,
+     * without duplicates and in the order of the list.
+     */
+    public int[] parseCast(String cast) {
+        if (cast == null || cast.trim().isEmpty()) {
+            return NO_ACTORS;
+        }
+        String[] actors = CAST_SEPARATOR.split(cast);
+        int[] ids = new int[actors.length];
+        int count = 0;
+        for (String actor : actors) {
+            int id = intern(actor);
+            if (id >= 0 && !contains(ids, count, id)) {
+                ids[count++] = id;
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    static String normalize(String actor) {
+        return actor == null ? "" : WHITESPACE.matcher(actor.trim()).replaceAll(" ");
+    }
+
+    private static boolean contains(int[] ids, int count, int id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,288 @@
+package com.karpur.wiremock.index;
+
+import com.karpur.wiremock.dto.Movie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from actor to the movies they play in, built over a fetched catalog. Every actor has a sorted
+ * int[] of movie ids, so a lookup is a dictionary hit plus one array walk.
+ *
+ * The index follows a changing catalog through {@link #update(Movie)} and {@link #remove(Long)}, which only touch the
+ * posting lists of the actors of that movie. Lookups are safe from any thread while it changes : a posting list is
+ * never modified once published, a change swaps in a new one.
+ *
+ * Movies are kept without their cast string, only with the ids of their actors, so each name is held once by the
+ * dictionary however many movies the actor plays in. The movies returned get their cast rebuilt from the dictionary,
+ * normalized : the names as first seen, joined by ", ". Movies without an id, or with one beyond the int range, are
+ * not indexed.
+ */
+public class ActorIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActorIndex.class);
+
+    private static final int[] NO_MOVIES = new int[0];
+
+    private final ActorDictionary dictionary;
+    private final Map<Integer, int[]> postings;
+    private final Map<Integer, IndexedMovie> moviesById;
+
+    private ActorIndex(ActorDictionary dictionary, Map<Integer, int[]> postings,
+                       Map<Integer, IndexedMovie> moviesById) {
+        this.dictionary = dictionary;
+        this.postings = postings;
+        this.moviesById = moviesById;
+    }
+
+    public static ActorIndex of(Collection<Movie> movies) {
+        ActorDictionary dictionary = new ActorDictionary();
+        List<Movie> sorted = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            if (indexableId(movie) != null) {
+                sorted.add(movie);
+            }
+        }
+        // filled in movie id order, so every posting list comes out sorted
+        sorted.sort(Comparator.comparing(Movie::getMovie_id));
+
+        int[][] castIds = new int[sorted.size()][];
+        Map<Integer, IndexedMovie> moviesById = new ConcurrentHashMap<>(sorted.size() * 4 / 3 + 1);
+        for (int i = 0; i < castIds.length; i++) {
+            Movie movie = sorted.get(i);
+            castIds[i] = dictionary.parseCast(movie.getCast());
+            moviesById.put(movie.getMovie_id().intValue(), new IndexedMovie(movie, castIds[i]));
+        }
+
+        int actors = dictionary.idLimit();
+        int[] counts = new int[actors];
+        for (int[] cast : castIds) {
+            for (int actorId : cast) {
+                counts[actorId]++;
+            }
+        }
+        int[][] lists = new int[actors][];
+        for (int actorId = 0; actorId < actors; actorId++) {
+            lists[actorId] = new int[counts[actorId]];
+        }
+        int[] filled = new int[actors];
+        for (int i = 0; i < castIds.length; i++) {
+            int movieId = sorted.get(i).getMovie_id().intValue();
+            for (int actorId : castIds[i]) {
+                lists[actorId][filled[actorId]++] = movieId;
+            }
+        }
+        Map<Integer, int[]> postings = new ConcurrentHashMap<>(actors * 4 / 3 + 1);
+        for (int actorId = 0; actorId < actors; actorId++) {
+            postings.put(actorId, lists[actorId]);
+        }
+        return new ActorIndex(dictionary, postings, moviesById);
+    }
+
+    /**
+     * Indexes a new movie, or a new version of one, under its current cast.
+     */
+    public synchronized void update(Movie movie) {
+        Integer movieId = indexableId(movie);
+        if (movieId == null) {
+            return;
+        }
+        int[] cast = dictionary.parseCast(movie.getCast());
+        // the movie is published before its id shows up in a posting list
+        IndexedMovie previous = moviesById.put(movieId, new IndexedMovie(movie, cast));
+        for (int actorId : cast) {
+            if (previous == null || !contains(previous.cast, actorId)) {
+                postings.put(actorId, insert(postings.getOrDefault(actorId, NO_MOVIES), movieId));
+            }
+        }
+        if (previous != null) {
+            for (int actorId : previous.cast) {
+                if (!contains(cast, actorId)) {
+                    removePosting(actorId, movieId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the movie, and the actors that played in no other movie of the index.
+     */
+    public synchronized void remove(Long movieId) {
+        if (movieId == null || movieId < Integer.MIN_VALUE || movieId > Integer.MAX_VALUE) {
+            return;
+        }
+        int id = movieId.intValue();
+        IndexedMovie removed = moviesById.get(id);
+        if (removed == null) {
+            return;
+        }
+        for (int actorId : removed.cast) {
+            removePosting(actorId, id);
+        }
+        moviesById.remove(id);
+    }
+
+    public List<Movie> findMoviesByActor(String actor) {
+        return toMovies(postingsOf(actor));
+    }
+
+    /**
+     * @return - sorted movie ids, empty when the actor is unknown
+     */
+    public int[] findMovieIdsByActor(String actor) {
+        return postingsOf(actor).clone();
+    }
+
+    /**
+     * @return - movies all of the given actors play in
+     */
+    public List<Movie> findMoviesByActors(String... actors) {
+        if (actors.length == 0) {
+            return Collections.emptyList();
+        }
+        int[] common = postingsOf(actors[0]);
+        for (int i = 1; i < actors.length && common.length > 0; i++) {
+            common = intersect(common, postingsOf(actors[i]));
+        }
+        return toMovies(common);
+    }
+
+    public int getActorCount() {
+        return postings.size();
+    }
+
+    public int getMovieCount() {
+        return moviesById.size();
+    }
+
+    public ActorDictionary getDictionary() {
+        return dictionary;
+    }
+
+    private int[] postingsOf(String actor) {
+        int actorId = dictionary.idOf(actor);
+        return actorId < 0 ? NO_MOVIES : postings.getOrDefault(actorId, NO_MOVIES);
+    }
+
+    private List<Movie> toMovies(int[] movieIds) {
+        List<Movie> movies = new ArrayList<>(movieIds.length);
+        for (int movieId : movieIds) {
+            IndexedMovie indexed = moviesById.get(movieId);
+            // removed since the posting list was read
+            if (indexed != null) {
+                movies.add(indexed.toMovie(dictionary));
+            }
+        }
+        return movies;
+    }
+
+    private static Integer indexableId(Movie movie) {
+        Long movieId = movie.getMovie_id();
+        if (movieId == null || movieId < Integer.MIN_VALUE || movieId > Integer.MAX_VALUE) {
+            LOGGER.warn("Movie {} not indexed by actor, its id {} is not an int", movie.getName(), movieId);
+            return null;
+        }
+        return movieId.intValue();
+    }
+
+    private void removePosting(int actorId, int movieId) {
+        int[] remaining = delete(postings.getOrDefault(actorId, NO_MOVIES), movieId);
+        if (remaining.length == 0) {
+            postings.remove(actorId);
+            dictionary.release(actorId);
+        } else {
+            postings.put(actorId, remaining);
+        }
+    }
+
+    private static int[] insert(int[] movieIds, int movieId) {
+        int at = Arrays.binarySearch(movieIds, movieId);
+        if (at >= 0) {
+            return movieIds;
+        }
+        at = -at - 1;
+        int[] inserted = new int[movieIds.length + 1];
+        System.arraycopy(movieIds, 0, inserted, 0, at);
+        inserted[at] = movieId;
+        System.arraycopy(movieIds, at, inserted, at + 1, movieIds.length - at);
+        return inserted;
+    }
+
+    private static int[] delete(int[] movieIds, int movieId) {
+        int at = Arrays.binarySearch(movieIds, movieId);
+        if (at < 0) {
+            return movieIds;
+        }
+        int[] remaining = new int[movieIds.length - 1];
+        System.arraycopy(movieIds, 0, remaining, 0, at);
+        System.arraycopy(movieIds, at + 1, remaining, at, movieIds.length - at - 1);
+        return remaining;
+    }
+
+    private static boolean contains(int[] actorIds, int actorId) {
+        for (int id : actorIds) {
+            if (id == actorId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] common = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                common[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(common, count);
+    }
+
+    /**
+     * A movie as the index holds it : everything but the cast string, plus the actor ids the cast parsed to.
+     */
+    private static final class IndexedMovie {
+
+        private final Long movieId;
+        private final String name;
+        private final Integer year;
+        private final LocalDate releaseDate;
+        private final int[] cast;
+
+        IndexedMovie(Movie movie, int[] cast) {
+            this.movieId = movie.getMovie_id();
+            this.name = movie.getName();
+            this.year = movie.getYear();
+            this.releaseDate = movie.getRelease_date();
+            this.cast = cast;
+        }
+
+        Movie toMovie(ActorDictionary dictionary) {
+            StringBuilder names = new StringBuilder();
+            for (int actorId : cast) {
+                String actor = dictionary.nameOf(actorId);
+                // released by an update of this movie that raced the read
+                if (actor != null) {
+                    names.append(names.length() == 0 ? "" : ", ").append(actor);
+                }
+            }
+            return new Movie(movieId, name, year, names.length() == 0 ? null : names.toString(), releaseDate);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.karpur.wiremock.jfr;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link MovieCallEvents} backed by JDK Flight Recorder.
+ *
+ * The event type is defined at run time through jdk.jfr.EventFactory and driven through method handles, because the
+ * client is compiled for Java 8 where the jdk.jfr API is not available to the compiler. The handles are looked up
+ * once, so a recorded call costs the same as a statically defined event plus a few non-virtual calls.
+ */
+class JfrMovieCallEvents extends MovieCallEvents {
+
+    static final String EVENT_NAME = "com.karpur.wiremock.MovieCall";
+
+    // indexes of the fields, in the order they are declared in fields()
+    private static final int OPERATION = 0;
+    private static final int ENDPOINT = 1;
+    private static final int PARAMETERS = 2;
+    private static final int STATUS = 3;
+    private static final int BYTES_IN = 4;
+    private static final int BYTES_OUT = 5;
+    private static final int ITEM_COUNT = 6;
+    private static final int FAILED = 7;
+    private static final int CALLING_THREAD = 8;
+
+    private final Object eventFactory;
+    private final Object eventType;
+
+    JfrMovieCallEvents(MovieCallEventOptions options) {
+        super(options);
+        try {
+            Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+            this.eventFactory = eventFactoryClass.getMethod("create", List.class, List.class)
+                .invoke(null, annotations(), fields());
+            this.eventType = eventFactoryClass.getMethod("getEventType").invoke(eventFactory);
+            // looks the handles up now, so a JVM without them falls back to NONE in MovieCallEvents.create
+            Handles.init();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Could not define the " + EVENT_NAME + " event", ex);
+        }
+    }
+
+    @Override
+    public boolean isRecording() {
+        try {
+            return (boolean) Handles.IS_ENABLED.invoke(eventType);
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    @Override
+    protected Object beginEvent() {
+        try {
+            Object event = Handles.NEW_EVENT.invoke(eventFactory);
+            Handles.BEGIN.invoke(event);
+            return event;
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    @Override
+    protected void commitEvent(Object event, MovieCallEventScope call) {
+        try {
+            Handles.END.invoke(event);
+            if (!(boolean) Handles.SHOULD_COMMIT.invoke(event)) {
+                return;
+            }
+            Handles.SET.invoke(event, OPERATION, (Object) call.getOperation());
+            Handles.SET.invoke(event, ENDPOINT, (Object) call.getEndpoint());
+            Handles.SET.invoke(event, PARAMETERS, (Object) call.getParameters());
+            Handles.SET.invoke(event, STATUS, (Object) call.getStatus());
+            Handles.SET.invoke(event, BYTES_IN, (Object) call.getBytesIn());
+            Handles.SET.invoke(event, BYTES_OUT, (Object) call.getBytesOut());
+            Handles.SET.invoke(event, ITEM_COUNT, (Object) call.getItemCount());
+            Handles.SET.invoke(event, FAILED, (Object) call.isFailed());
+            Handles.SET.invoke(event, CALLING_THREAD, (Object) call.getCallingThread());
+            Handles.COMMIT.invoke(event);
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    private static List<Object> annotations() throws ReflectiveOperationException {
+        return Arrays.asList(
+            annotation("jdk.jfr.Name", EVENT_NAME),
+            annotation("jdk.jfr.Label", "Movie Call"),
+            annotation("jdk.jfr.Category", new String[]{"Movies Client"}),
+            annotation("jdk.jfr.Description", "One call of the MoviesRestClient to the Movies RESTFUL Service"),
+            // the stack of the committing thread is an event loop, the calling thread is recorded as a field
+            annotation("jdk.jfr.StackTrace", false));
+    }
+
+    private static List<Object> fields() throws ReflectiveOperationException {
+        return Arrays.asList(
+            field(String.class, "operation", "Operation"),
+            field(String.class, "endpoint", "Endpoint"),
+            field(String.class, "parameters", "Parameters"),
+            field(int.class, "status", "Status"),
+            field(long.class, "bytesIn", "Bytes In", annotation("jdk.jfr.DataAmount", "BYTES")),
+            field(long.class, "bytesOut", "Bytes Out", annotation("jdk.jfr.DataAmount", "BYTES")),
+            field(int.class, "itemCount", "Item Count"),
+            field(boolean.class, "failed", "Failed"),
+            field(Thread.class, "callingThread", "Calling Thread"));
+    }
+
+    private static Object field(Class<?> type, String name, String label, Object... annotations)
+        throws ReflectiveOperationException {
+        List<Object> fieldAnnotations = new ArrayList<>();
+        fieldAnnotations.add(annotation("jdk.jfr.Label", label));
+        Collections.addAll(fieldAnnotations, annotations);
+        return Class.forName("jdk.jfr.ValueDescriptor")
+            .getConstructor(Class.class, String.class, List.class)
+            .newInstance(type, name, fieldAnnotations);
+    }
+
+    private static Object annotation(String annotationType, Object value) throws ReflectiveOperationException {
+        return Class.forName("jdk.jfr.AnnotationElement")
+            .getConstructor(Class.class, Object.class)
+            .newInstance(Class.forName(annotationType), value);
+    }
+
+    private static RuntimeException rethrow(Throwable ex) {
+        if (ex instanceof RuntimeException) {
+            return (RuntimeException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        return new IllegalStateException(ex);
+    }
+
+    /**
+     * Handles of the jdk.jfr methods used per call, looked up when the first JfrMovieCallEvents is created.
+     */
+    private static class Handles {
+        private static final MethodHandle NEW_EVENT;
+        private static final MethodHandle IS_ENABLED;
+        private static final MethodHandle BEGIN;
+        private static final MethodHandle END;
+        private static final MethodHandle SHOULD_COMMIT;
+        private static final MethodHandle SET;
+        private static final MethodHandle COMMIT;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+                Class<?> eventClass = Class.forName("jdk.jfr.Event");
+                Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+                NEW_EVENT = generic(lookup.findVirtual(eventFactoryClass, "newEvent", MethodType.methodType(eventClass)));
+                IS_ENABLED = generic(lookup.findVirtual(eventTypeClass, "isEnabled", MethodType.methodType(boolean.class)));
+                BEGIN = generic(lookup.findVirtual(eventClass, "begin", MethodType.methodType(void.class)));
+                END = generic(lookup.findVirtual(eventClass, "end", MethodType.methodType(void.class)));
+                SHOULD_COMMIT = generic(lookup.findVirtual(eventClass, "shouldCommit", MethodType.methodType(boolean.class)));
+                SET = generic(lookup.findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class)));
+                COMMIT = generic(lookup.findVirtual(eventClass, "commit", MethodType.methodType(void.class)));
+            } catch (ReflectiveOperationException ex) {
+                throw new ExceptionInInitializerError(ex);
+            }
+        }
+
+        private static void init() {
+        }
+
+        // receivers are passed around as Object, so the handles take Object as their first parameter
+        private static MethodHandle generic(MethodHandle handle) {
+            return handle.asType(handle.type().changeParameterType(0, Object.class));
+        }
+    }
+}
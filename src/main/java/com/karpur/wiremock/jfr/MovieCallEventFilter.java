@@ -0,0 +1,58 @@
+package com.karpur.wiremock.jfr;
+
+import com.karpur.wiremock.limits.BodyReplacedClientResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Feeds the parameters, status and bytes in/out of a call into the {@link MovieCallEventScope} that
+ * {@link com.karpur.wiremock.service.MoviesRestClient} put in the subscriber context.
+ */
+class MovieCallEventFilter implements ExchangeFilterFunction {
+
+    // set once the call is counted, so a WebClient that ends up with the filter twice counts it once
+    private static final String COUNTED_ATTRIBUTE = MovieCallEventFilter.class.getName() + ".counted";
+
+    private final MovieCallEvents events;
+
+    MovieCallEventFilter(MovieCallEvents events) {
+        this.events = events;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!events.isRecording() || request.attribute(COUNTED_ATTRIBUTE).isPresent()) {
+            return next.exchange(request);
+        }
+        return Mono.subscriberContext().flatMap(context -> {
+            MovieCallEventScope call = context.getOrDefault(MovieCallEventScope.class, MovieCallEventScope.NOOP);
+            if (call == MovieCallEventScope.NOOP) {
+                return next.exchange(request);
+            }
+            call.request(request.url());
+            ClientRequest counted = ClientRequest.from(request)
+                .attribute(COUNTED_ATTRIBUTE, true)
+                .body((outputMessage, insertContext) -> request.body().insert(new ClientHttpRequestDecorator(outputMessage) {
+                    @Override
+                    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                        return super.writeWith(Flux.from(body).doOnNext(buffer -> call.addBytesOut(buffer.readableByteCount())));
+                    }
+                }, insertContext))
+                .build();
+            return next.exchange(counted).map(response -> {
+                call.response(response.rawStatusCode());
+                Flux<DataBuffer> body = response.body(BodyExtractors.toDataBuffers())
+                    .doOnNext(buffer -> call.addBytesIn(buffer.readableByteCount()));
+                return new BodyReplacedClientResponse(response, body);
+            });
+        });
+    }
+}
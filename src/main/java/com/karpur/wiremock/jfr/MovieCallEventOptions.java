@@ -0,0 +1,38 @@
+package com.karpur.wiremock.jfr;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Settings of the {@link MovieCallEvents}.
+ */
+@Getter
+@Builder
+@ToString
+public class MovieCallEventOptions {
+
+    @Builder.Default
+    private final boolean enabled = true;
+
+    /**
+     * Calls faster than this are not recorded. Applied on top of the threshold of the recording settings.
+     */
+    @Builder.Default
+    private final Duration threshold = Duration.ZERO;
+
+    /**
+     * Parameters recorded as {@value MovieCallEvents#REDACTED} instead of their value.
+     */
+    @Builder.Default
+    private final Set<String> redactedParameters = new HashSet<>(Arrays.asList("movie_name", "name"));
+
+    public static MovieCallEventOptions defaults() {
+        return MovieCallEventOptions.builder().build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.karpur.wiremock.jfr;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What is known about one call while it runs, filled in by {@link com.karpur.wiremock.service.MoviesRestClient} and
+ * the exchange filter of {@link MovieCallEvents}, and handed back to it when the call ends.
+ */
+public class MovieCallEventScope {
+
+    static final MovieCallEventScope NOOP = new MovieCallEventScope(null, null, null, null);
+
+    private final MovieCallEvents events;
+    private final Object event;
+    private final String operation;
+    private final String endpoint;
+    private final Thread callingThread = Thread.currentThread();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+    private volatile String parameters = "";
+    private volatile int status;
+    private int itemCount;
+    private boolean failed;
+    private long durationNanos;
+
+    MovieCallEventScope(MovieCallEvents events, Object event, String operation, String endpoint) {
+        this.events = events;
+        this.event = event;
+        this.operation = operation;
+        this.endpoint = endpoint;
+    }
+
+    void request(URI url) {
+        if (events != null) {
+            parameters = events.parametersOf(endpoint, url);
+        }
+    }
+
+    void response(int status) {
+        this.status = status;
+    }
+
+    void addBytesIn(long bytes) {
+        bytesIn.addAndGet(bytes);
+    }
+
+    void addBytesOut(long bytes) {
+        bytesOut.addAndGet(bytes);
+    }
+
+    /**
+     * @param result - the decoded result of the call, its items are counted
+     */
+    public void end(Object result, boolean failed) {
+        if (events == null) {
+            return;
+        }
+        this.durationNanos = System.nanoTime() - startNanos;
+        this.failed = failed;
+        this.itemCount = itemCountOf(result);
+        events.end(event, this);
+    }
+
+    private static int itemCountOf(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        // the streaming calls return how many movies they handed over
+        if (result instanceof Long) {
+            return Math.toIntExact((Long) result);
+        }
+        return 1;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getBytesIn() {
+        return bytesIn.get();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.get();
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Thread getCallingThread() {
+        return callingThread;
+    }
+}
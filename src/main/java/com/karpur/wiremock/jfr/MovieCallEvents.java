@@ -0,0 +1,161 @@
+package com.karpur.wiremock.jfr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JDK Flight Recorder events for the calls of {@link com.karpur.wiremock.service.MoviesRestClient}, so a slow movie
+ * lookup can be lined up with GC pauses or thread parking in the same recording.
+ *
+ * Every call becomes one "com.karpur.wiremock.MovieCall" event with the operation, the endpoint template of
+ * {@link com.karpur.wiremock.constants.MoviesAppConstants}, the parameters, the status, the bytes sent and received,
+ * the number of decoded items and the duration. While no recording has the event enabled a call only pays for one
+ * check. On a JVM without Flight Recorder (Java 8 before 8u262) {@link #defaults()} is {@link #NONE}.
+ */
+public abstract class MovieCallEvents {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MovieCallEvents.class);
+
+    public static final String REDACTED = "<redacted>";
+
+    public static final MovieCallEvents NONE = new MovieCallEvents(MovieCallEventOptions.defaults()) {
+        @Override
+        public boolean isRecording() {
+            return false;
+        }
+
+        @Override
+        protected Object beginEvent() {
+            return null;
+        }
+
+        @Override
+        protected void commitEvent(Object event, MovieCallEventScope call) {
+        }
+    };
+
+    private static final Pattern TEMPLATE_VARIABLE = Pattern.compile("\\{([^}]+)}");
+
+    private final MovieCallEventOptions options;
+    private final long thresholdNanos;
+    private final ExchangeFilterFunction filter = new MovieCallEventFilter(this);
+    private final Map<String, EndpointTemplate> templates = new ConcurrentHashMap<>();
+
+    protected MovieCallEvents(MovieCallEventOptions options) {
+        this.options = options;
+        this.thresholdNanos = options.getThreshold().toNanos();
+    }
+
+    public static MovieCallEvents defaults() {
+        return DefaultsHolder.DEFAULTS;
+    }
+
+    public static MovieCallEvents create(MovieCallEventOptions options) {
+        if (!options.isEnabled()) {
+            return NONE;
+        }
+        try {
+            return new JfrMovieCallEvents(options);
+        } catch (LinkageError | RuntimeException ex) {
+            LOGGER.info("JDK Flight Recorder is not available, movie call events are disabled : {} ", ex.toString());
+            return NONE;
+        }
+    }
+
+    /**
+     * @return - true when a running recording has the event enabled
+     */
+    public abstract boolean isRecording();
+
+    /**
+     * @return - the recorder specific event, begun
+     */
+    protected abstract Object beginEvent();
+
+    protected abstract void commitEvent(Object event, MovieCallEventScope call);
+
+    /**
+     * @return - the scope of a call that just started, a no-op one while nothing is recorded
+     */
+    public MovieCallEventScope begin(String operation, String uriTemplate) {
+        if (!isRecording()) {
+            return MovieCallEventScope.NOOP;
+        }
+        return new MovieCallEventScope(this, beginEvent(), operation, uriTemplate);
+    }
+
+    /**
+     * Exchange filter that counts the bytes and reads the status of a call. Added by MoviesRestClient to its
+     * WebClient.
+     */
+    public ExchangeFilterFunction filter() {
+        return filter;
+    }
+
+    void end(Object event, MovieCallEventScope call) {
+        if (call.getDurationNanos() >= thresholdNanos) {
+            commitEvent(event, call);
+        }
+    }
+
+    /**
+     * @return - path variables and query parameters of the url (Example : "id=1", "year=2012",
+     * "movie_name=<redacted>")
+     */
+    String parametersOf(String uriTemplate, URI url) {
+        StringJoiner parameters = new StringJoiner("&");
+        EndpointTemplate template = templates.computeIfAbsent(uriTemplate, EndpointTemplate::new);
+        Matcher matcher = template.pattern.matcher(url.getRawPath());
+        if (matcher.matches()) {
+            for (int i = 0; i < template.variables.size(); i++) {
+                parameters.add(parameter(template.variables.get(i), matcher.group(i + 1)));
+            }
+        }
+        MultiValueMap<String, String> query = UriComponentsBuilder.fromUri(url).build().getQueryParams();
+        query.forEach((name, values) -> values.forEach(value -> parameters.add(parameter(name, value))));
+        return parameters.toString();
+    }
+
+    private String parameter(String name, String rawValue) {
+        String value = options.getRedactedParameters().contains(name) ? REDACTED
+            : rawValue == null ? "" : UriUtils.decode(rawValue, StandardCharsets.UTF_8);
+        return name + "=" + value;
+    }
+
+    // created on first use, once, so the event type is only registered with the recorder once
+    private static class DefaultsHolder {
+        private static final MovieCallEvents DEFAULTS = create(MovieCallEventOptions.defaults());
+    }
+
+    private static class EndpointTemplate {
+        private final Pattern pattern;
+        private final List<String> variables = new ArrayList<>();
+
+        private EndpointTemplate(String uriTemplate) {
+            Matcher variable = TEMPLATE_VARIABLE.matcher(uriTemplate);
+            StringBuffer regex = new StringBuffer();
+            int last = 0;
+            while (variable.find()) {
+                regex.append(Pattern.quote(uriTemplate.substring(last, variable.start()))).append("([^/]+)");
+                variables.add(variable.group(1));
+                last = variable.end();
+            }
+            regex.append(Pattern.quote(uriTemplate.substring(last)));
+            this.pattern = Pattern.compile(regex.toString());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.karpur.wiremock.lanes;
+
+import com.karpur.wiremock.timing.LatencyHistogram;
+
+/**
+ * Queue and wait figures of one priority lane of the {@link PriorityLaneFilter}.
+ */
+public class LaneMetrics {
+
+    private final MovieCallPriority priority;
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private volatile int queueDepth;
+    private volatile int maxQueueDepth;
+    private volatile int inFlight;
+    private volatile long admitted;
+    private volatile long expired;
+
+    LaneMetrics(MovieCallPriority priority) {
+        this.priority = priority;
+    }
+
+    // the setters are only called under the lock of the filter, which keeps the read-modify-writes safe
+
+    void queued(int depth) {
+        queueDepth = depth;
+        if (depth > maxQueueDepth) {
+            maxQueueDepth = depth;
+        }
+    }
+
+    void admitted(int depth, int lanesInFlight, long waitNanos) {
+        queueDepth = depth;
+        inFlight = lanesInFlight;
+        admitted++;
+        waitTime.record(waitNanos);
+    }
+
+    void released(int lanesInFlight, boolean timedOut) {
+        inFlight = lanesInFlight;
+        if (timedOut) {
+            expired++;
+        }
+    }
+
+    public MovieCallPriority getPriority() {
+        return priority;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    /**
+     * Slots given back by the slot timeout rather than by their call.
+     */
+    public long getExpired() {
+        return expired;
+    }
+
+    /**
+     * Time calls spent waiting for an in-flight slot, zero when one was free.
+     */
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    @Override
+    public String toString() {
+        return "LaneMetrics(priority=" + priority + ", queueDepth=" + queueDepth + ", maxQueueDepth=" + maxQueueDepth
+            + ", inFlight=" + inFlight + ", admitted=" + admitted + ", expired=" + expired + ", waitTime=" + waitTime
+            + ")";
+    }
+}
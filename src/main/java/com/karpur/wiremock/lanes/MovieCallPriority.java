@@ -0,0 +1,17 @@
+package com.karpur.wiremock.lanes;
+
+/**
+ * Priority class of a call, see {@link com.karpur.wiremock.service.MoviesRestClient#withPriority}.
+ */
+public enum MovieCallPriority {
+
+    /**
+     * User facing lookups, the default.
+     */
+    INTERACTIVE,
+
+    /**
+     * Catalog pulls, imports and other bulk jobs, throttled first under contention.
+     */
+    BATCH
+}
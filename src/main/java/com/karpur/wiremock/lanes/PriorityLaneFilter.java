@@ -0,0 +1,229 @@
+package com.karpur.wiremock.lanes;
+
+import com.karpur.wiremock.limits.BodyReplacedClientResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Priority lanes over the in-flight slots of a WebClient, so bulk jobs cannot starve interactive lookups.
+ *
+ * A call holds a slot from before its request is sent until its response body has been read, so at most
+ * {@link PriorityLaneOptions#getMaxInFlight()} calls compete for pooled connections and event loops. A response whose
+ * body makes no progress for {@link PriorityLaneOptions#getSlotTimeout()}, such as the one of an {@code exchange()}
+ * whose body is never read, gives its slot back without cancelling the call; a body still streaming keeps it, however
+ * long it takes. When calls wait, the freed slots go to the lanes by weight
+ * ({@link PriorityLaneOptions#getInteractiveWeight()} interactive for one batch), and batch calls never hold more than
+ * {@link PriorityLaneOptions#getMaxBatchInFlight()} slots.
+ *
+ * The lane comes from the {@link #PRIORITY_ATTRIBUTE} request attribute, set by
+ * {@link com.karpur.wiremock.service.MoviesRestClient#withPriority}; calls without one are interactive.
+ */
+public class PriorityLaneFilter implements ExchangeFilterFunction {
+
+    public static final String PRIORITY_ATTRIBUTE = PriorityLaneFilter.class.getName() + ".priority";
+
+    private final PriorityLaneOptions options;
+    private final Map<MovieCallPriority, Deque<Waiter>> queues = new EnumMap<>(MovieCallPriority.class);
+    private final Map<MovieCallPriority, LaneMetrics> metrics = new EnumMap<>(MovieCallPriority.class);
+    private final int[] lanesInFlight = new int[MovieCallPriority.values().length];
+    private int inFlight;
+    // interactive slots handed out since the last batch one, while both lanes were waiting
+    private int interactiveStreak;
+
+    public PriorityLaneFilter(PriorityLaneOptions options) {
+        this.options = options;
+        for (MovieCallPriority priority : MovieCallPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            metrics.put(priority, new LaneMetrics(priority));
+        }
+    }
+
+    public LaneMetrics getMetrics(MovieCallPriority priority) {
+        return metrics.get(priority);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        MovieCallPriority priority = (MovieCallPriority) request.attribute(PRIORITY_ATTRIBUTE)
+            .orElse(MovieCallPriority.INTERACTIVE);
+        return Mono.<Slot>create(sink -> enqueue(new Waiter(priority, sink)))
+            .flatMap(slot -> next.exchange(request)
+                .doOnCancel(slot::release)
+                .doOnError(error -> slot.release())
+                .map(response -> {
+                    slot.armExpiry();
+                    Flux<DataBuffer> body = response.body(BodyExtractors.toDataBuffers())
+                        .doOnNext(buffer -> slot.touch())
+                        .doOnTerminate(slot::release)
+                        .doOnCancel(slot::release);
+                    return new BodyReplacedClientResponse(response, body);
+                }));
+    }
+
+    private void enqueue(Waiter waiter) {
+        waiter.sink.onCancel(() -> {
+            waiter.cancelled = true;
+            cancel(waiter);
+        });
+        List<Waiter> granted;
+        synchronized (this) {
+            Deque<Waiter> queue = queues.get(waiter.priority);
+            queue.addLast(waiter);
+            metrics.get(waiter.priority).queued(queue.size());
+            granted = admit();
+        }
+        grant(granted);
+    }
+
+    private void cancel(Waiter waiter) {
+        synchronized (this) {
+            Deque<Waiter> queue = queues.get(waiter.priority);
+            if (queue.remove(waiter)) {
+                metrics.get(waiter.priority).queued(queue.size());
+            }
+        }
+    }
+
+    private void release(MovieCallPriority priority, boolean expired) {
+        List<Waiter> granted;
+        synchronized (this) {
+            inFlight--;
+            lanesInFlight[priority.ordinal()]--;
+            metrics.get(priority).released(lanesInFlight[priority.ordinal()], expired);
+            granted = admit();
+        }
+        grant(granted);
+    }
+
+    /**
+     * Hands out the free slots; called under the lock, the sinks are completed outside of it.
+     */
+    private List<Waiter> admit() {
+        List<Waiter> granted = new ArrayList<>();
+        long now = System.nanoTime();
+        while (inFlight < options.getMaxInFlight()) {
+            MovieCallPriority lane = nextLane();
+            if (lane == null) {
+                break;
+            }
+            Deque<Waiter> queue = queues.get(lane);
+            Waiter waiter = queue.pollFirst();
+            inFlight++;
+            lanesInFlight[lane.ordinal()]++;
+            metrics.get(lane).admitted(queue.size(), lanesInFlight[lane.ordinal()], now - waiter.queuedAt);
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    private MovieCallPriority nextLane() {
+        boolean interactiveWaiting = !queues.get(MovieCallPriority.INTERACTIVE).isEmpty();
+        boolean batchWaiting = !queues.get(MovieCallPriority.BATCH).isEmpty()
+            && lanesInFlight[MovieCallPriority.BATCH.ordinal()] < options.getMaxBatchInFlight();
+        if (interactiveWaiting && batchWaiting) {
+            if (interactiveStreak >= options.getInteractiveWeight()) {
+                interactiveStreak = 0;
+                return MovieCallPriority.BATCH;
+            }
+            interactiveStreak++;
+            return MovieCallPriority.INTERACTIVE;
+        }
+        if (interactiveWaiting) {
+            return MovieCallPriority.INTERACTIVE;
+        }
+        return batchWaiting ? MovieCallPriority.BATCH : null;
+    }
+
+    private void grant(List<Waiter> granted) {
+        for (Waiter waiter : granted) {
+            Slot slot = new Slot(waiter.priority);
+            waiter.sink.success(slot);
+            // cancelled after leaving the queue, nobody is going to use the slot
+            if (waiter.cancelled) {
+                slot.release();
+            }
+        }
+    }
+
+    private static class Waiter {
+        private final MovieCallPriority priority;
+        private final MonoSink<Slot> sink;
+        private final long queuedAt = System.nanoTime();
+        private volatile boolean cancelled;
+
+        private Waiter(MovieCallPriority priority, MonoSink<Slot> sink) {
+            this.priority = priority;
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * One in-flight slot, given back exactly once whichever of cancel, error, end of body or timeout comes first.
+     *
+     * The timeout only runs once the response is there, and counts from the last body buffer. Rather than
+     * rescheduling on every buffer, a check that finds recent progress schedules itself again for the time left.
+     */
+    private class Slot {
+        private final MovieCallPriority priority;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile Disposable expiry;
+        private volatile long lastProgress;
+
+        private Slot(MovieCallPriority priority) {
+            this.priority = priority;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                Disposable timeout = expiry;
+                if (timeout != null) {
+                    timeout.dispose();
+                }
+                PriorityLaneFilter.this.release(priority, false);
+            }
+        }
+
+        private void armExpiry() {
+            touch();
+            scheduleExpiry(options.getSlotTimeout().toNanos());
+        }
+
+        private void touch() {
+            lastProgress = System.nanoTime();
+        }
+
+        private void scheduleExpiry(long delayNanos) {
+            expiry = Schedulers.parallel().schedule(this::checkExpiry, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void checkExpiry() {
+            if (released.get()) {
+                return;
+            }
+            long left = options.getSlotTimeout().toNanos() - (System.nanoTime() - lastProgress);
+            if (left > 0) {
+                scheduleExpiry(left);
+            } else if (released.compareAndSet(false, true)) {
+                PriorityLaneFilter.this.release(priority, true);
+            }
+        }
+    }
+}
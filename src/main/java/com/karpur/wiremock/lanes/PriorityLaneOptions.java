@@ -0,0 +1,47 @@
+package com.karpur.wiremock.lanes;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link PriorityLaneFilter}.
+ */
+@Getter
+@Builder
+@ToString
+public class PriorityLaneOptions {
+
+    /**
+     * Calls in flight over all lanes. Keep it at or below the connection pool size, so the pool never queues
+     * acquisitions behind the lanes' back.
+     */
+    @Builder.Default
+    private final int maxInFlight = 64;
+
+    /**
+     * Batch calls in flight at most, the rest of {@link #maxInFlight} is kept for interactive calls.
+     */
+    @Builder.Default
+    private final int maxBatchInFlight = 16;
+
+    /**
+     * When both lanes have calls waiting, interactive calls get this many slots for every batch one.
+     */
+    @Builder.Default
+    private final int interactiveWeight = 4;
+
+    /**
+     * A response whose body makes no progress for this long gives its slot back, so a caller of {@code exchange()}
+     * that never reads the body cannot keep it for good. The call itself goes on. Counted from the response or its
+     * last body buffer, so a slow request or a long but steady body never loses its slot.
+     */
+    @Builder.Default
+    private final Duration slotTimeout = Duration.ofSeconds(30);
+
+    public static PriorityLaneOptions defaults() {
+        return PriorityLaneOptions.builder().build();
+    }
+}
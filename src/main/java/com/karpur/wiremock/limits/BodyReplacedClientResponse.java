@@ -0,0 +1,133 @@
+package com.karpur.wiremock.limits;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyExtractor;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.support.ClientResponseWrapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A response with its body swapped for a filtered one, for exchange filters.
+ *
+ * Used instead of {@code ClientResponse.from(response).body(body).build()}, which in Spring 5.1 copies the status
+ * through {@code statusCode()} and so throws on status codes HttpStatus does not know. Status, headers and cookies are
+ * read from the original response as they are.
+ */
+public class BodyReplacedClientResponse extends ClientResponseWrapper {
+
+    private final ClientHttpResponse message;
+
+    public BodyReplacedClientResponse(ClientResponse response, Flux<DataBuffer> body) {
+        super(response);
+        this.message = new ClientHttpResponse() {
+            @Override
+            public HttpStatus getStatusCode() {
+                return response.statusCode();
+            }
+
+            @Override
+            public int getRawStatusCode() {
+                return response.rawStatusCode();
+            }
+
+            @Override
+            public MultiValueMap<String, ResponseCookie> getCookies() {
+                return response.cookies();
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return response.headers().asHttpHeaders();
+            }
+
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return body;
+            }
+        };
+    }
+
+    @Override
+    public <T> T body(BodyExtractor<T, ? super ClientHttpResponse> extractor) {
+        return extractor.extract(message, new BodyExtractor.Context() {
+            @Override
+            public List<HttpMessageReader<?>> messageReaders() {
+                return strategies().messageReaders();
+            }
+
+            @Override
+            public Optional<ServerHttpResponse> serverResponse() {
+                return Optional.empty();
+            }
+
+            @Override
+            public Map<String, Object> hints() {
+                return Collections.emptyMap();
+            }
+        });
+    }
+
+    @Override
+    public <T> Mono<T> bodyToMono(Class<? extends T> elementClass) {
+        return body(BodyExtractors.toMono(elementClass));
+    }
+
+    @Override
+    public <T> Mono<T> bodyToMono(ParameterizedTypeReference<T> typeReference) {
+        return body(BodyExtractors.toMono(typeReference));
+    }
+
+    @Override
+    public <T> Flux<T> bodyToFlux(Class<? extends T> elementClass) {
+        return body(BodyExtractors.toFlux(elementClass));
+    }
+
+    @Override
+    public <T> Flux<T> bodyToFlux(ParameterizedTypeReference<T> typeReference) {
+        return body(BodyExtractors.toFlux(typeReference));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<T>> toEntity(Class<T> bodyType) {
+        return toEntity(bodyToMono(bodyType));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<T>> toEntity(ParameterizedTypeReference<T> typeReference) {
+        return toEntity(bodyToMono(typeReference));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<List<T>>> toEntityList(Class<T> elementClass) {
+        return toEntity(bodyToFlux(elementClass).collectList());
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<List<T>>> toEntityList(ParameterizedTypeReference<T> typeReference) {
+        return toEntity(bodyToFlux(typeReference).collectList());
+    }
+
+    private <T> Mono<ResponseEntity<T>> toEntity(Mono<T> body) {
+        HttpHeaders headers = headers().asHttpHeaders();
+        int status = rawStatusCode();
+        return body
+            .map(value -> ResponseEntity.status(status).headers(headers).body(value))
+            .switchIfEmpty(Mono.fromSupplier(() -> ResponseEntity.status(status).headers(headers).<T>build()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.karpur.wiremock.limits;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Response bytes buffered through the {@link ResponseSizeLimitFilter}. In-flight bytes are the bodies of responses
+ * still being read, which is what a burst of calls costs in heap at the same time.
+ */
+public class ResponseBufferMetrics {
+
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder buffersReceived = new LongAdder();
+    private final AtomicLong inFlightBytes = new AtomicLong();
+    private final LongAccumulator peakInFlightBytes = new LongAccumulator(Math::max, 0);
+    private final LongAdder rejectedResponses = new LongAdder();
+    private final LongAdder truncatedErrorBodies = new LongAdder();
+    private final Map<String, LongAccumulator> largestResponseBytes = new ConcurrentHashMap<>();
+
+    void received(int bytes) {
+        bytesReceived.add(bytes);
+        buffersReceived.increment();
+        peakInFlightBytes.accumulate(inFlightBytes.addAndGet(bytes));
+    }
+
+    void responseFinished(String endpoint, long bytes) {
+        inFlightBytes.addAndGet(-bytes);
+        largestResponseBytes.computeIfAbsent(endpoint, e -> new LongAccumulator(Math::max, 0)).accumulate(bytes);
+    }
+
+    void rejected() {
+        rejectedResponses.increment();
+    }
+
+    void truncated() {
+        truncatedErrorBodies.increment();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    public long getBuffersReceived() {
+        return buffersReceived.sum();
+    }
+
+    public long getInFlightBytes() {
+        return inFlightBytes.get();
+    }
+
+    public long getPeakInFlightBytes() {
+        return peakInFlightBytes.get();
+    }
+
+    public long getRejectedResponses() {
+        return rejectedResponses.sum();
+    }
+
+    public long getTruncatedErrorBodies() {
+        return truncatedErrorBodies.sum();
+    }
+
+    public long getLargestResponseBytes(String endpoint) {
+        LongAccumulator largest = largestResponseBytes.get(endpoint);
+        return largest != null ? largest.get() : 0;
+    }
+
+    @Override
+    public String toString() {
+        Map<String, Long> largest = new TreeMap<>();
+        largestResponseBytes.forEach((endpoint, bytes) -> largest.put(endpoint, bytes.get()));
+        return "ResponseBufferMetrics(bytesReceived=" + getBytesReceived() + ", buffersReceived=" + getBuffersReceived()
+            + ", inFlightBytes=" + getInFlightBytes() + ", peakInFlightBytes=" + getPeakInFlightBytes()
+            + ", rejectedResponses=" + getRejectedResponses() + ", truncatedErrorBodies=" + getTruncatedErrorBodies()
+            + ", largestResponseBytes=" + largest + ")";
+    }
+}
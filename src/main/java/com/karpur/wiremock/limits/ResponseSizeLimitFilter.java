@@ -0,0 +1,161 @@
+package com.karpur.wiremock.limits;
+
+import com.karpur.wiremock.exception.MovieResponseTooLargeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.karpur.wiremock.constants.MoviesAppConstants.*;
+
+/**
+ * Counts response bytes as they arrive and stops a call as soon as its endpoint limit is passed, so the buffered
+ * decode paths ({@code collectList()}, {@code getResponseBodyAsString()}) never hold more than the limit.
+ *
+ * Successful responses over the limit fail with {@link MovieResponseTooLargeException}; calls marked with
+ * {@link #STREAMING_ATTRIBUTE} hand every movie to a consumer instead, and are not limited. Error bodies are cut to
+ * {@link ResponseSizeLimits#getMaxErrorBodyBytes()}.
+ *
+ * Register with {@code WebClient.builder().filter(new ResponseSizeLimitFilter(limits))}.
+ */
+public class ResponseSizeLimitFilter implements ExchangeFilterFunction {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseSizeLimitFilter.class);
+
+    public static final String STREAMING_ATTRIBUTE = ResponseSizeLimitFilter.class.getName() + ".streaming";
+
+    private static final List<String> ENDPOINT_TEMPLATES = Arrays.asList(GET_ALL_MOVIES_V1, MOVIE_BY_ID_PATH_PARAM_V1,
+        MOVIE_BY_NAME_QUERY_PARAM_V1, MOVIE_BY_YEAR_QUERY_PARAM_V1, ADD_MOVIE_V1, MOVIE_BY_NAME_PATH_PARAM_V1,
+        MOVIE_CHANGES_QUERY_PARAM_V1, MOVIES_BY_IDS_QUERY_PARAM_V1);
+
+    private static final List<Pattern> ENDPOINT_PATTERNS = ENDPOINT_TEMPLATES.stream()
+        .map(template -> Pattern.compile(template.replaceAll("\\{[^}]+}", "[^/]+")))
+        .collect(Collectors.toList());
+
+    private final ResponseSizeLimits limits;
+    private final ResponseBufferMetrics metrics = new ResponseBufferMetrics();
+
+    public ResponseSizeLimitFilter(ResponseSizeLimits limits) {
+        this.limits = limits;
+    }
+
+    public ResponseBufferMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String endpoint = endpointOf(request.url().getPath());
+        boolean streaming = Boolean.TRUE.equals(request.attribute(STREAMING_ATTRIBUTE).orElse(false));
+        return next.exchange(request).map(response -> {
+            Flux<DataBuffer> body = response.body(BodyExtractors.toDataBuffers());
+            Flux<DataBuffer> bounded;
+            if (response.rawStatusCode() >= 400) {
+                bounded = truncate(body, endpoint, limits.getMaxErrorBodyBytes());
+            } else if (streaming) {
+                bounded = count(body, endpoint);
+            } else {
+                bounded = limit(body, endpoint, limits.maxBytesOf(endpoint));
+            }
+            return new BodyReplacedClientResponse(response, bounded);
+        });
+    }
+
+    /**
+     * @return - the MoviesAppConstants template the path belongs to, or the path itself when no template matches
+     */
+    static String endpointOf(String path) {
+        for (int i = 0; i < ENDPOINT_PATTERNS.size(); i++) {
+            if (ENDPOINT_PATTERNS.get(i).matcher(path).matches()) {
+                return ENDPOINT_TEMPLATES.get(i);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Accounted before the terminal signal travels downstream, so the metrics are up to date once the call returns.
+     */
+    private Flux<DataBuffer> finished(Flux<DataBuffer> body, String endpoint, AtomicLong read) {
+        AtomicBoolean done = new AtomicBoolean();
+        Runnable finish = () -> {
+            if (done.compareAndSet(false, true)) {
+                metrics.responseFinished(endpoint, read.get());
+            }
+        };
+        return body.doOnTerminate(finish).doOnCancel(finish);
+    }
+
+    private Flux<DataBuffer> count(Flux<DataBuffer> body, String endpoint) {
+        return Flux.defer(() -> {
+            AtomicLong read = new AtomicLong();
+            return body
+                .doOnNext(buffer -> {
+                    read.addAndGet(buffer.readableByteCount());
+                    metrics.received(buffer.readableByteCount());
+                })
+                .transform(bounded -> finished(bounded, endpoint, read));
+        });
+    }
+
+    private Flux<DataBuffer> limit(Flux<DataBuffer> body, String endpoint, long maxBytes) {
+        return Flux.defer(() -> {
+            AtomicLong read = new AtomicLong();
+            return body
+                .<DataBuffer>handle((buffer, sink) -> {
+                    long total = read.addAndGet(buffer.readableByteCount());
+                    metrics.received(buffer.readableByteCount());
+                    if (total > maxBytes) {
+                        DataBufferUtils.release(buffer);
+                        metrics.rejected();
+                        LOGGER.error("Response of {} exceeded the limit of {} bytes ", endpoint, maxBytes);
+                        sink.error(new MovieResponseTooLargeException(endpoint, maxBytes, total));
+                    } else {
+                        sink.next(buffer);
+                    }
+                })
+                .transform(bounded -> finished(bounded, endpoint, read));
+        });
+    }
+
+    private Flux<DataBuffer> truncate(Flux<DataBuffer> body, String endpoint, int maxBytes) {
+        return Flux.defer(() -> {
+            AtomicLong read = new AtomicLong();
+            return body
+                .<DataBuffer>handle((buffer, sink) -> {
+                    int size = buffer.readableByteCount();
+                    long before = read.getAndAdd(size);
+                    metrics.received(size);
+                    if (before + size <= maxBytes) {
+                        sink.next(buffer);
+                        return;
+                    }
+                    // keep what still fits and stop reading, the rest of the body is dropped with the connection
+                    byte[] kept = new byte[(int) Math.max(0, maxBytes - before)];
+                    buffer.read(kept);
+                    DataBuffer head = buffer.factory().wrap(kept);
+                    DataBufferUtils.release(buffer);
+                    metrics.truncated();
+                    if (kept.length > 0) {
+                        sink.next(head);
+                    }
+                    sink.complete();
+                })
+                .transform(bounded -> finished(bounded, endpoint, read));
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.karpur.wiremock.limits;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Response size limits enforced by {@link ResponseSizeLimitFilter}, per endpoint template of
+ * {@link com.karpur.wiremock.constants.MoviesAppConstants}.
+ */
+@Getter
+@Builder
+@ToString
+public class ResponseSizeLimits {
+
+    /**
+     * Limit of the endpoints without one of their own.
+     */
+    @Builder.Default
+    private final long defaultMaxBytes = 16 * 1024 * 1024;
+
+    /**
+     * Example : maxBytes(MOVIE_BY_YEAR_QUERY_PARAM_V1, 1024 * 1024)
+     */
+    private final Map<String, Long> maxBytesByEndpoint;
+
+    /**
+     * Error bodies are cut to this size, they only end up in logs and exception messages.
+     */
+    @Builder.Default
+    private final int maxErrorBodyBytes = 8 * 1024;
+
+    public static ResponseSizeLimits defaults() {
+        return ResponseSizeLimits.builder().build();
+    }
+
+    public long maxBytesOf(String endpoint) {
+        Long maxBytes = maxBytesByEndpoint.get(endpoint);
+        return maxBytes != null ? maxBytes : defaultMaxBytes;
+    }
+
+    /**
+     * Completed by Lombok; only the per endpoint adder is written by hand.
+     */
+    public static class ResponseSizeLimitsBuilder {
+
+        private Map<String, Long> maxBytesByEndpoint = Collections.emptyMap();
+
+        public ResponseSizeLimitsBuilder maxBytes(String endpoint, long maxBytes) {
+            // a fresh map per call, so limits built earlier from this builder do not change
+            Map<String, Long> updated = new HashMap<>(maxBytesByEndpoint);
+            updated.put(endpoint, maxBytes);
+            maxBytesByEndpoint = Collections.unmodifiableMap(updated);
+            return this;
+        }
+    }
+}
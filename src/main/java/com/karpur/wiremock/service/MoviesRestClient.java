@@ -1,14 +1,33 @@
 package com.karpur.wiremock.service;
 
 import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.dto.MovieChanges;
+import com.karpur.wiremock.exception.MovieChangesCursorExpiredException;
 import com.karpur.wiremock.exception.MovieErrorResponse;
+import com.karpur.wiremock.exception.MovieResponseTooLargeException;
+import com.karpur.wiremock.jfr.MovieCallEventScope;
+import com.karpur.wiremock.jfr.MovieCallEvents;
+import com.karpur.wiremock.lanes.MovieCallPriority;
+import com.karpur.wiremock.lanes.PriorityLaneFilter;
+import com.karpur.wiremock.limits.ResponseSizeLimitFilter;
+import com.karpur.wiremock.timing.MovieCallListener;
+import com.karpur.wiremock.timing.MovieCallTimings;
+import com.karpur.wiremock.warmup.MoviesClientWarmUp;
+import com.karpur.wiremock.warmup.WarmUpOptions;
+import com.karpur.wiremock.warmup.WarmUpReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static com.karpur.wiremock.constants.MoviesAppConstants.*;
 
@@ -17,9 +36,79 @@ public class MoviesRestClient {
     private static final Logger LOGGER = LoggerFactory.getLogger(MoviesRestClient.class);
 
     private WebClient webClient;
+    private MovieCallListener callListener;
+    private MovieCallEvents callEvents;
 
     public MoviesRestClient(WebClient webClient){
+        this(webClient, MovieCallListener.NONE);
+    }
+
+    /**
+     * Creates a client that reports a {@link MovieCallTimings} breakdown of every call to the given listener.
+     * The phase timings are only filled in when the WebClient was built through
+     * {@link com.karpur.wiremock.timing.MovieCallTimingSupport#webClientBuilder}; otherwise only the total is known.
+     *
+     * @param webClient
+     * @param callListener - use {@link MovieCallListener#NONE} to disable timing
+     */
+    public MoviesRestClient(WebClient webClient, MovieCallListener callListener){
+        this(webClient, callListener, MovieCallEvents.defaults());
+    }
+
+    /**
+     * Creates a client that also records every call as a JDK Flight Recorder event, while a recording has the
+     * "com.karpur.wiremock.MovieCall" event enabled.
+     *
+     * @param webClient
+     * @param callListener - use {@link MovieCallListener#NONE} to disable timing
+     * @param callEvents - use {@link MovieCallEvents#NONE} to disable the events
+     */
+    public MoviesRestClient(WebClient webClient, MovieCallListener callListener, MovieCallEvents callEvents){
+        this.webClient = callEvents == MovieCallEvents.NONE ? webClient
+            : webClient.mutate().filter(callEvents.filter()).build();
+        this.callListener = callListener;
+        this.callEvents = callEvents;
+    }
+
+    /**
+     * Copy of the given client over another WebClient, derived from the one of that client and so already
+     * carrying its event filter.
+     */
+    private MoviesRestClient(MoviesRestClient client, WebClient webClient){
         this.webClient = webClient;
+        this.callListener = client.callListener;
+        this.callEvents = client.callEvents;
+    }
+
+    /**
+     * Returns a client whose calls run in the given priority lane; it shares the WebClient, connections and
+     * listener of this one. The lanes only take effect when the WebClient was built with a
+     * {@link PriorityLaneFilter}.
+     *
+     * Example : moviesRestClient.withPriority(MovieCallPriority.BATCH).retrieveAllMovies()
+     *
+     * @param priority
+     * @return - MoviesRestClient
+     */
+    public MoviesRestClient withPriority(MovieCallPriority priority) {
+        WebClient prioritized = webClient.mutate()
+            .defaultRequest(spec -> spec.attribute(PriorityLaneFilter.PRIORITY_ATTRIBUTE, priority))
+            .build();
+        return new MoviesRestClient(this, prioritized);
+    }
+
+    /**
+     * Opens pooled connections and primes the codecs so the first real calls run at steady state speed.
+     * Meant to be called once, right after construction and before the client takes traffic.
+     *
+     * @return - WarmUpReport with the time spent per step
+     */
+    public WarmUpReport warmUp() {
+        return warmUp(WarmUpOptions.defaults());
+    }
+
+    public WarmUpReport warmUp(WarmUpOptions warmUpOptions) {
+        return new MoviesClientWarmUp(webClient).warmUp(warmUpOptions);
     }
 
     public List<Movie> retrieveAllMovies() {
@@ -30,6 +119,7 @@ public List<Movie> retrieveAllMovies() {
             .retrieve()
             .bodyToFlux(Movie.class)
             .collectList()
+            .transform(call -> timed("retrieveAllMovies", GET_ALL_MOVIES_V1, call))
             .block();
 
         } catch (WebClientResponseException ex) {
@@ -37,7 +127,7 @@ public List<Movie> retrieveAllMovies() {
             throw new MovieErrorResponse(ex.getStatusText(), ex);
         } catch (Exception ex) {
             LOGGER.error("Exception in retrieveAllMovies and the message is {} ", ex.getMessage() + ex);
-            throw new MovieErrorResponse(ex);
+            throw movieErrorOf(ex);
         }
     }
 
@@ -48,13 +138,14 @@ public Movie retrieveMovieById(Integer movieId) {
             movie = webClient.get().uri(movieByIdURL, movieId) //mapping the movie id to the url
                 .retrieve()
                 .bodyToMono(Movie.class) //body is converted to Mono(Represents single item)
+                .transform(call -> timed("retrieveMovieById", MOVIE_BY_ID_PATH_PARAM_V1, call))
                 .block();
         } catch (WebClientResponseException ex) {
             LOGGER.error("WebClientResponseException in retrieveMovieById. Status code is {} and the message is {} ", ex.getRawStatusCode(), ex.getResponseBodyAsString());
             throw new MovieErrorResponse(ex.getStatusText(), ex);
         } catch (Exception ex) {
             LOGGER.error("Exception - The Error Message is {} ", ex.getMessage());
-            throw new MovieErrorResponse(ex);
+            throw movieErrorOf(ex);
         }
         return movie;
     }
@@ -72,13 +163,14 @@ public List<Movie> retrieveMovieByName(String movieName) {
                 .retrieve()
                 .bodyToFlux(Movie.class)
                 .collectList()
+                .transform(call -> timed("retrieveMovieByName", MOVIE_BY_NAME_QUERY_PARAM_V1, call))
                 .block();
         } catch (WebClientResponseException ex) {
             LOGGER.error("WebClientResponseException in retrieveMovieByName - Error Message is : {} ", ex, ex.getResponseBodyAsString());
             throw new MovieErrorResponse(ex.getStatusText(), ex);
         } catch (Exception ex) {
             LOGGER.error("Exception - The Error Message is {} ", ex.getMessage());
-            throw new MovieErrorResponse(ex);
+            throw movieErrorOf(ex);
         }
         return movieList;
     }
@@ -102,13 +194,14 @@ public List<Movie> retrieveMovieByYear(Integer year) {
                 .retrieve()
                 .bodyToFlux(Movie.class)
                 .collectList()
+                .transform(call -> timed("retrieveMovieByYear", MOVIE_BY_YEAR_QUERY_PARAM_V1, call))
                 .block();
         } catch (WebClientResponseException ex) {
             LOGGER.error("WebClientResponseException in retreieveMovieByYear - Error Message is : {} ", ex, ex.getResponseBodyAsString());
             throw new MovieErrorResponse(ex.getStatusText(), ex);
         } catch (Exception ex) {
             LOGGER.error("Exception - The Error Message is {} ", ex.getMessage());
-            throw new MovieErrorResponse(ex);
+            throw movieErrorOf(ex);
         }
         return movieList;
     }
@@ -127,6 +220,7 @@ public Movie addNewMovie(Movie newMovie) {
                 .syncBody(newMovie)
                 .retrieve()
                 .bodyToMono(Movie.class)
+                .transform(call -> timed("addNewMovie", ADD_MOVIE_V1, call))
                 .block();
             LOGGER.info("New Movie SuccessFully addded {} ", movie);
         } catch (WebClientResponseException ex) {
@@ -134,7 +228,7 @@ public Movie addNewMovie(Movie newMovie) {
             throw new MovieErrorResponse(ex.getStatusText(), ex);
         } catch (Exception ex) {
             LOGGER.error("Exception - The Error Message is {} ", ex.getMessage());
-            throw new MovieErrorResponse(ex);
+            throw movieErrorOf(ex);
         }
         return movie;
     }
@@ -147,6 +241,7 @@ public Movie updateMovie(Integer movieId, Movie movie) {
                 .syncBody(movie)
                 .retrieve()
                 .bodyToMono(Movie.class)
+                .transform(call -> timed("updateMovie", MOVIE_BY_ID_PATH_PARAM_V1, call))
                 .block();
             LOGGER.info(" Movie SuccessFully updated {} ", updatedMovie);
         } catch (WebClientResponseException ex) {
@@ -154,7 +249,7 @@ public Movie updateMovie(Integer movieId, Movie movie) {
             throw new MovieErrorResponse(ex.getStatusText(), ex);
         } catch (Exception ex) {
             LOGGER.error("Exception - The Error Message is {} ", ex.getMessage());
-            throw new MovieErrorResponse(ex);
+            throw movieErrorOf(ex);
         }
 
         return updatedMovie;
@@ -167,13 +262,14 @@ public String deleteMovieById(Integer movieId) {
             response = webClient.delete().uri( MOVIE_BY_ID_PATH_PARAM_V1, movieId)
                 .retrieve()
                 .bodyToMono(String.class)
+                .transform(call -> timed("deleteMovieById", MOVIE_BY_ID_PATH_PARAM_V1, call))
                 .block();
         }catch (WebClientResponseException ex) {
             LOGGER.error("WebClientResponseException - Error Message is : {}", ex, ex.getResponseBodyAsString());
             throw new MovieErrorResponse(ex.getStatusText(), ex);
         } catch (Exception ex) {
             LOGGER.error("Exception - The Error Message is {} ", ex.getMessage());
-            throw new MovieErrorResponse(ex);
+            throw movieErrorOf(ex);
         }
 
         return response;
@@ -191,6 +287,7 @@ public String deleteMovieByName(String movieName){
             webClient.delete().uri(deleteMovieByNameURI)
                 .retrieve()
                 .bodyToMono(Void.class)
+                .transform(call -> timed("deleteMovieByName", MOVIE_BY_NAME_QUERY_PARAM_V1, call))
                 .block();
 
         }catch (WebClientResponseException ex) {
@@ -198,9 +295,148 @@ public String deleteMovieByName(String movieName){
             throw new MovieErrorResponse(ex.getStatusText(), ex);
         } catch (Exception ex) {
             LOGGER.error("Exception in deleteMovie and the message is {} ", ex);
-            throw new MovieErrorResponse(ex);
+            throw movieErrorOf(ex);
         }
 
         return "Movie Deleted Successfully";
     }
+
+    /**
+     * This method makes a REST call to the Movies RESTFUL Service and retrieves the movies of several ids in one
+     * exchange. Ids without a movie are left out of the response.
+     *
+     * @param movieIds - (Example : 1,2,3)
+     * @return - List<Movie>
+     */
+    public List<Movie> retrieveMoviesByIds(Collection<Integer> movieIds) {
+        String retrieveByIdsUri = UriComponentsBuilder.fromUriString(MOVIES_BY_IDS_QUERY_PARAM_V1)
+            .queryParam("ids", movieIds.stream().map(String::valueOf).collect(Collectors.joining(",")))
+            .buildAndExpand()
+            .toUriString();
+
+        try {
+            return webClient.get().uri(retrieveByIdsUri)
+                .retrieve()
+                .bodyToFlux(Movie.class)
+                .collectList()
+                .transform(call -> timed("retrieveMoviesByIds", MOVIES_BY_IDS_QUERY_PARAM_V1, call))
+                .block();
+        } catch (WebClientResponseException ex) {
+            LOGGER.error("WebClientResponseException in retrieveMoviesByIds. Status code is {} and the message is {} ", ex.getRawStatusCode(), ex.getResponseBodyAsString());
+            throw new MovieErrorResponse(ex.getStatusText(), ex);
+        } catch (Exception ex) {
+            LOGGER.error("Exception in retrieveMoviesByIds and the message is {} ", ex.getMessage());
+            throw movieErrorOf(ex);
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #retrieveAllMovies()} for catalogs too large to hold as a list : every movie is
+     * handed to the consumer as soon as it is decoded, so memory stays bounded by one movie rather than the catalog.
+     * These calls are exempt from the response size limit of a {@link ResponseSizeLimitFilter}.
+     *
+     * @param consumer - called on the event loop, must not block
+     * @return - number of movies streamed
+     */
+    public long streamAllMovies(Consumer<Movie> consumer) {
+        return stream("streamAllMovies", GET_ALL_MOVIES_V1, GET_ALL_MOVIES_V1, consumer);
+    }
+
+    public long streamMovieByName(String movieName, Consumer<Movie> consumer) {
+        String retrieveByNameUri = UriComponentsBuilder.fromUriString(MOVIE_BY_NAME_QUERY_PARAM_V1)
+            .queryParam("movie_name", movieName)
+            .buildAndExpand()
+            .toUriString();
+        return stream("streamMovieByName", MOVIE_BY_NAME_QUERY_PARAM_V1, retrieveByNameUri, consumer);
+    }
+
+    public long streamMovieByYear(Integer year, Consumer<Movie> consumer) {
+        String retrieveByYearUri = UriComponentsBuilder.fromUriString(MOVIE_BY_YEAR_QUERY_PARAM_V1)
+            .queryParam("year", year)
+            .buildAndExpand()
+            .toUriString();
+        return stream("streamMovieByYear", MOVIE_BY_YEAR_QUERY_PARAM_V1, retrieveByYearUri, consumer);
+    }
+
+    /**
+     * This method makes a REST call to the Movies RESTFUL Service and retrieves the movies changed or deleted since
+     * the given cursor.
+     *
+     * @param cursor - cursor of the previous page, or null to only get the current cursor
+     * @return - MovieChanges
+     * @throws MovieChangesCursorExpiredException when the service no longer has the changes since the cursor
+     */
+    public MovieChanges retrieveMovieChanges(String cursor) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(MOVIE_CHANGES_QUERY_PARAM_V1);
+        if (cursor != null) {
+            uriBuilder.queryParam("since", cursor);
+        }
+        String retrieveChangesUri = uriBuilder.buildAndExpand().toUriString();
+
+        try {
+            return webClient.get().uri(retrieveChangesUri)
+                .retrieve()
+                .bodyToMono(MovieChanges.class)
+                .transform(call -> timed("retrieveMovieChanges", MOVIE_CHANGES_QUERY_PARAM_V1, call))
+                .block();
+        } catch (WebClientResponseException ex) {
+            if (ex.getStatusCode() == HttpStatus.GONE) {
+                LOGGER.info("Changes cursor {} has expired ", cursor);
+                throw new MovieChangesCursorExpiredException(ex.getStatusText(), ex);
+            }
+            LOGGER.error("WebClientResponseException in retrieveMovieChanges. Status code is {} and the message is {} ", ex.getRawStatusCode(), ex.getResponseBodyAsString());
+            throw new MovieErrorResponse(ex.getStatusText(), ex);
+        } catch (Exception ex) {
+            LOGGER.error("Exception in retrieveMovieChanges and the message is {} ", ex.getMessage());
+            throw movieErrorOf(ex);
+        }
+    }
+
+    private long stream(String operation, String uriTemplate, String uri, Consumer<Movie> consumer) {
+        try {
+            return webClient.get().uri(uri)
+                .attribute(ResponseSizeLimitFilter.STREAMING_ATTRIBUTE, true)
+                .retrieve()
+                .bodyToFlux(Movie.class)
+                .doOnNext(consumer)
+                .count()
+                .transform(call -> timed(operation, uriTemplate, call))
+                .block();
+        } catch (WebClientResponseException ex) {
+            LOGGER.error("WebClientResponseException in {}. Status code is {} and the message is {} ", operation, ex.getRawStatusCode(), ex.getResponseBodyAsString());
+            throw new MovieErrorResponse(ex.getStatusText(), ex);
+        } catch (Exception ex) {
+            LOGGER.error("Exception in {} and the message is {} ", operation, ex.getMessage());
+            throw movieErrorOf(ex);
+        }
+    }
+
+    /**
+     * Errors raised by the client itself, such as {@link MovieResponseTooLargeException}, are already movie errors
+     * and keep their type.
+     */
+    private static MovieErrorResponse movieErrorOf(Exception ex) {
+        return ex instanceof MovieErrorResponse ? (MovieErrorResponse) ex : new MovieErrorResponse(ex);
+    }
+
+    private <T> Mono<T> timed(String operation, String uriTemplate, Mono<T> call) {
+        if (callListener == MovieCallListener.NONE && !callEvents.isRecording()) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            MovieCallEventScope event = callEvents.begin(operation, uriTemplate);
+            MovieCallTimings timings = callListener == MovieCallListener.NONE ? null
+                : new MovieCallTimings(operation, uriTemplate);
+            Context context = Context.of(MovieCallEventScope.class, event);
+            return call
+                .doOnSuccessOrError((result, error) -> {
+                    event.end(result, error != null);
+                    if (timings != null) {
+                        timings.complete(error != null);
+                        callListener.onCallCompleted(timings);
+                    }
+                })
+                .subscriberContext(timings == null ? context : context.put(MovieCallTimings.class, timings));
+        });
+    }
 }
@@ -0,0 +1,21 @@
+package com.karpur.wiremock.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Outcome of one {@link MoviesCatalogSync#sync()}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CatalogSyncResult {
+
+    private final boolean fullResync;
+    private final int changed;
+    private final int deleted;
+    private final int pages;
+    private final int catalogSize;
+    private final long durationMillis;
+}
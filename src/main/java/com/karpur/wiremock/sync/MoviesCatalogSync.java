@@ -0,0 +1,144 @@
+package com.karpur.wiremock.sync;
+
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.dto.MovieChanges;
+import com.karpur.wiremock.exception.MovieChangesCursorExpiredException;
+import com.karpur.wiremock.index.ActorIndex;
+import com.karpur.wiremock.service.MoviesRestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local copy of the movie catalog kept fresh through {@link MoviesRestClient#retrieveMovieChanges(String)}, so a
+ * refresh costs the movies that changed since the last one rather than a download of the whole catalog.
+ *
+ * The first sync, and any sync whose cursor the service reports as expired, falls back to
+ * {@link MoviesRestClient#retrieveAllMovies()}. The cursor is taken before that download, so changes made while it
+ * runs are fetched again by the next sync; applying a change twice is harmless.
+ *
+ * Reads are safe from any thread while a sync runs.
+ */
+public class MoviesCatalogSync {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MoviesCatalogSync.class);
+
+    private final MoviesRestClient moviesRestClient;
+
+    private volatile Map<Long, Movie> movies = new ConcurrentHashMap<>();
+    private volatile String cursor;
+
+    // built on the first lookup, then kept up to date by the delta syncs; a full resync drops it
+    private final Object indexLock = new Object();
+    private ActorIndex actorIndex;
+
+    public MoviesCatalogSync(MoviesRestClient moviesRestClient) {
+        this.moviesRestClient = moviesRestClient;
+    }
+
+    public synchronized CatalogSyncResult sync() {
+        long start = System.nanoTime();
+        if (cursor == null) {
+            return fullResync(start);
+        }
+        int changed = 0;
+        int deleted = 0;
+        int pages = 0;
+        String since = cursor;
+        MovieChanges changes;
+        try {
+            do {
+                changes = moviesRestClient.retrieveMovieChanges(since);
+                changed += apply(changes);
+                deleted += changes.getDeleted() == null ? 0 : changes.getDeleted().size();
+                since = changes.getCursor();
+                pages++;
+                // the view is updated page by page, so the cursor has to follow it
+                cursor = since;
+            } while (changes.isHasMore());
+        } catch (MovieChangesCursorExpiredException ex) {
+            LOGGER.info("Cursor {} expired, falling back to a full resync ", since);
+            return fullResync(start);
+        }
+        CatalogSyncResult result = new CatalogSyncResult(false, changed, deleted, pages, movies.size(), millisSince(start));
+        LOGGER.debug("Catalog delta sync {} ", result);
+        return result;
+    }
+
+    public Movie getMovie(Long movieId) {
+        return movies.get(movieId);
+    }
+
+    public Collection<Movie> getMovies() {
+        return Collections.unmodifiableCollection(movies.values());
+    }
+
+    /**
+     * @return - movies of the local view the actor plays in, see {@link ActorIndex}
+     */
+    public List<Movie> findMoviesByActor(String actor) {
+        return getActorIndex().findMoviesByActor(actor);
+    }
+
+    public ActorIndex getActorIndex() {
+        synchronized (indexLock) {
+            if (actorIndex == null) {
+                actorIndex = ActorIndex.of(movies.values());
+            }
+            return actorIndex;
+        }
+    }
+
+    public int size() {
+        return movies.size();
+    }
+
+    /**
+     * @return - the cursor the next sync starts from, null until the first sync
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    private CatalogSyncResult fullResync(long start) {
+        String fresh = moviesRestClient.retrieveMovieChanges(null).getCursor();
+        List<Movie> all = moviesRestClient.retrieveAllMovies();
+        Map<Long, Movie> view = new ConcurrentHashMap<>(Math.max(16, all.size() * 4 / 3 + 1));
+        all.forEach(movie -> view.put(movie.getMovie_id(), movie));
+        // swapped in whole, so readers never see a half loaded catalog
+        movies = view;
+        cursor = fresh;
+        synchronized (indexLock) {
+            actorIndex = null;
+        }
+        CatalogSyncResult result = new CatalogSyncResult(true, all.size(), 0, 1, view.size(), millisSince(start));
+        LOGGER.info("Catalog full resync {} ", result);
+        return result;
+    }
+
+    private int apply(MovieChanges changes) {
+        Map<Long, Movie> view = movies;
+        List<Movie> changed = changes.getChanged() == null ? Collections.emptyList() : changes.getChanged();
+        changed.forEach(movie -> view.put(movie.getMovie_id(), movie));
+        List<Long> deleted = changes.getDeleted() == null ? Collections.emptyList() : changes.getDeleted();
+        deleted.forEach(view::remove);
+        // after the view, so an index built from the view meanwhile gets the same changes again, which is harmless
+        synchronized (indexLock) {
+            if (actorIndex != null) {
+                changed.forEach(actorIndex::update);
+                deleted.forEach(actorIndex::remove);
+            }
+        }
+        return changed.size();
+    }
+
+    private static long millisSince(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,19 @@
+package com.karpur.wiremock.timing;
+
+/**
+ * Callback invoked by {@link com.karpur.wiremock.service.MoviesRestClient} once a call has completed,
+ * successfully or not, with the phase breakdown captured for that call.
+ */
+public interface MovieCallListener {
+
+    MovieCallListener NONE = timings -> { };
+
+    void onCallCompleted(MovieCallTimings timings);
+
+    default MovieCallListener andThen(MovieCallListener next) {
+        return timings -> {
+            onCallCompleted(timings);
+            next.onCallCompleted(timings);
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.karpur.wiremock.timing;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.AttributeKey;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.Connection;
+import reactor.netty.channel.BootstrapHandlers;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.context.Context;
+
+/**
+ * Wires the reactor-netty lifecycle hooks and the timing decoder that feed {@link MovieCallTimings}.
+ *
+ * The hooks find the timings of the current call through the reactor subscriber context, which
+ * {@link com.karpur.wiremock.service.MoviesRestClient} only populates when a {@link MovieCallListener} is configured.
+ * Without one, each hook is a single context lookup.
+ */
+public final class MovieCallTimingSupport {
+
+    private static final AttributeKey<Long> CONNECT_STARTED_AT = AttributeKey.valueOf("movies.connectStartedAt");
+    private static final AttributeKey<Long> CONNECTED_AT = AttributeKey.valueOf("movies.connectedAt");
+
+    private MovieCallTimingSupport() {
+    }
+
+    /**
+     * Returns a WebClient builder whose connector and Jackson decoder report phase timings.
+     *
+     * @param httpClient - the reactor-netty client to instrument (pool, timeouts etc. are preserved)
+     */
+    public static WebClient.Builder webClientBuilder(HttpClient httpClient) {
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(instrument(httpClient)))
+            .exchangeStrategies(ExchangeStrategies.builder()
+                .codecs(configurer -> configurer.defaultCodecs().jackson2JsonDecoder(new TimingJackson2JsonDecoder()))
+                .build());
+    }
+
+    public static HttpClient instrument(HttpClient httpClient) {
+        return httpClient
+            .tcpConfiguration(tcpClient -> tcpClient
+                .bootstrap(bootstrap -> BootstrapHandlers.updateConfiguration(bootstrap, "movies.timing",
+                    (observer, channel) -> {
+                        channel.attr(CONNECT_STARTED_AT).set(System.nanoTime());
+                        channel.pipeline().addFirst("movies.connectTimer", new ConnectTimer());
+                    })))
+            .doOnRequest((request, connection) -> {
+                long connectStartedAt = consume(connection, CONNECT_STARTED_AT);
+                long connectedAt = consume(connection, CONNECTED_AT);
+                MovieCallTimings timings = timingsOf(request.currentContext());
+                if (timings != null) {
+                    timings.connectionReady(connectStartedAt, connectedAt, System.nanoTime());
+                }
+            })
+            .doAfterRequest((request, connection) -> {
+                MovieCallTimings timings = timingsOf(request.currentContext());
+                if (timings != null) {
+                    timings.requestSent(System.nanoTime());
+                }
+            })
+            .doOnResponse((response, connection) -> {
+                MovieCallTimings timings = timingsOf(response.currentContext());
+                if (timings != null) {
+                    timings.responseReceived(response.status().code(), System.nanoTime());
+                }
+            })
+            .doAfterResponse((response, connection) -> {
+                MovieCallTimings timings = timingsOf(response.currentContext());
+                if (timings != null) {
+                    timings.responseCompleted(System.nanoTime());
+                }
+            });
+    }
+
+    /**
+     * reactor-netty's doOnConnected fires on every pool acquire, so the end of the TCP connect is taken from
+     * Netty's channelActive, which only fires once per channel.
+     */
+    private static final class ConnectTimer extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            ctx.channel().attr(CONNECTED_AT).set(System.nanoTime());
+            ctx.pipeline().remove(this);
+            ctx.fireChannelActive();
+        }
+    }
+
+    static MovieCallTimings timingsOf(Context context) {
+        return context.getOrDefault(MovieCallTimings.class, null);
+    }
+
+    /**
+     * The connect timestamps are only meaningful for the first request on a fresh connection, so they are
+     * cleared once read, even by untimed requests; later requests over the same pooled channel then report
+     * no connect phase.
+     */
+    private static long consume(Connection connection, AttributeKey<Long> key) {
+        Channel channel = connection.channel();
+        Long value = channel.attr(key).getAndSet(null);
+        return value == null ? 0 : value;
+    }
+}
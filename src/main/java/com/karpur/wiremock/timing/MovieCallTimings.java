@@ -0,0 +1,82 @@
+package com.karpur.wiremock.timing;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timing breakdown of a single MoviesRestClient call.
+ *
+ * The phases are filled in from the reactor-netty lifecycle hooks installed by {@link MovieCallTimingSupport}
+ * and from the {@link TimingJackson2JsonDecoder}. A phase that was not observed (for example connect on a
+ * pooled connection, or decode on a String body) stays at zero. All values are in nanoseconds.
+ */
+@Getter
+@ToString
+public class MovieCallTimings {
+
+    private final String operation;
+    private final String uriTemplate;
+    private final long startNanos;
+
+    private volatile long poolAcquireNanos;
+    private volatile long connectNanos;
+    private volatile long timeToFirstByteNanos;
+    private volatile long bodyTransferNanos;
+    private volatile long decodeNanos;
+    private volatile long totalNanos;
+    private volatile boolean newConnection;
+    private volatile int status;
+    private volatile boolean failed;
+
+    @ToString.Exclude
+    private volatile long requestSentAt;
+    @ToString.Exclude
+    private volatile long responseReceivedAt;
+
+    public MovieCallTimings(String operation, String uriTemplate) {
+        this.operation = operation;
+        this.uriTemplate = uriTemplate;
+        this.startNanos = System.nanoTime();
+    }
+
+    void connectionReady(long connectStartedAt, long connectedAt, long now) {
+        if (connectStartedAt > 0 && connectedAt >= connectStartedAt) {
+            this.newConnection = true;
+            this.connectNanos = connectedAt - connectStartedAt;
+        }
+        this.poolAcquireNanos = Math.max(0, now - startNanos - connectNanos);
+    }
+
+    void requestSent(long now) {
+        this.requestSentAt = now;
+    }
+
+    void responseReceived(int status, long now) {
+        this.status = status;
+        this.responseReceivedAt = now;
+        if (requestSentAt > 0) {
+            this.timeToFirstByteNanos = now - requestSentAt;
+        }
+    }
+
+    void responseCompleted(long now) {
+        if (responseReceivedAt > 0 && bodyTransferNanos == 0) {
+            this.bodyTransferNanos = now - responseReceivedAt;
+        }
+    }
+
+    synchronized void addDecodeNanos(long nanos) {
+        this.decodeNanos += nanos;
+    }
+
+    public void complete(boolean failed) {
+        this.failed = failed;
+        this.totalNanos = System.nanoTime() - startNanos;
+    }
+
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+    }
+}
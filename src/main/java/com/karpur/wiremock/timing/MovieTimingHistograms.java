@@ -0,0 +1,65 @@
+package com.karpur.wiremock.timing;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link MovieCallListener} that aggregates every completed call into per-operation, per-phase histograms.
+ */
+public class MovieTimingHistograms implements MovieCallListener {
+
+    private final Map<String, OperationHistograms> operations = new ConcurrentHashMap<>();
+
+    @Override
+    public void onCallCompleted(MovieCallTimings timings) {
+        operations.computeIfAbsent(timings.getOperation(), operation -> new OperationHistograms())
+            .record(timings);
+    }
+
+    public OperationHistograms forOperation(String operation) {
+        return operations.getOrDefault(operation, OperationHistograms.EMPTY);
+    }
+
+    public Map<String, OperationHistograms> getOperations() {
+        return Collections.unmodifiableMap(operations);
+    }
+
+    @Getter
+    public static class OperationHistograms {
+
+        static final OperationHistograms EMPTY = new OperationHistograms();
+
+        private final LatencyHistogram poolAcquire = new LatencyHistogram();
+        private final LatencyHistogram connect = new LatencyHistogram();
+        private final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+        private final LatencyHistogram bodyTransfer = new LatencyHistogram();
+        private final LatencyHistogram decode = new LatencyHistogram();
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final AtomicLong failures = new AtomicLong();
+
+        void record(MovieCallTimings timings) {
+            poolAcquire.record(timings.getPoolAcquireNanos());
+            if (timings.isNewConnection()) {
+                connect.record(timings.getConnectNanos());
+            }
+            timeToFirstByte.record(timings.getTimeToFirstByteNanos());
+            bodyTransfer.record(timings.getBodyTransferNanos());
+            decode.record(timings.getDecodeNanos());
+            total.record(timings.getTotalNanos());
+            if (timings.isFailed()) {
+                failures.incrementAndGet();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "total[" + total + "] poolAcquire[" + poolAcquire + "] connect[" + connect
+                + "] ttfb[" + timeToFirstByte + "] body[" + bodyTransfer + "] decode[" + decode
+                + "] failures=" + failures.get();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.karpur.wiremock.timing;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.util.MimeType;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.Map;
+
+/**
+ * Jackson decoder that measures the time spent tokenizing and binding each incoming body buffer.
+ *
+ * The decoding work happens synchronously while a {@link DataBuffer} is pushed down the decoder chain, so the
+ * time spent inside {@code onNext} is attributed to {@link MovieCallTimings#getDecodeNanos()}. The completion of
+ * the body stream also marks the end of the body transfer phase, which is earlier and more reliable than the
+ * connection release reported by reactor-netty. Calls made
+ * without a {@link MovieCallTimings} in their subscriber context skip the clock reads entirely.
+ */
+public class TimingJackson2JsonDecoder extends Jackson2JsonDecoder {
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType,
+                               Map<String, Object> hints) {
+        return super.decode(timed(input), elementType, mimeType, hints);
+    }
+
+    @Override
+    public Mono<Object> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType,
+                                     Map<String, Object> hints) {
+        return super.decodeToMono(timed(input), elementType, mimeType, hints);
+    }
+
+    private static Flux<DataBuffer> timed(Publisher<DataBuffer> input) {
+        return Flux.from(input).transform(Operators.<DataBuffer, DataBuffer>lift((scannable, actual) -> {
+            MovieCallTimings timings = MovieCallTimingSupport.timingsOf(actual.currentContext());
+            if (timings == null) {
+                return actual;
+            }
+            return new DecodeTimingSubscriber(actual, timings);
+        }));
+    }
+
+    private static final class DecodeTimingSubscriber implements CoreSubscriber<DataBuffer> {
+
+        private final CoreSubscriber<? super DataBuffer> actual;
+        private final MovieCallTimings timings;
+
+        DecodeTimingSubscriber(CoreSubscriber<? super DataBuffer> actual, MovieCallTimings timings) {
+            this.actual = actual;
+            this.timings = timings;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            actual.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(DataBuffer dataBuffer) {
+            long start = System.nanoTime();
+            actual.onNext(dataBuffer);
+            timings.addDecodeNanos(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            long start = System.nanoTime();
+            timings.responseCompleted(start);
+            actual.onComplete();
+            timings.addDecodeNanos(System.nanoTime() - start);
+        }
+    }
+}
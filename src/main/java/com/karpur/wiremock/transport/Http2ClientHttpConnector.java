@@ -0,0 +1,356 @@
+package com.karpur.wiremock.transport;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.HttpExchange;
+import org.eclipse.jetty.client.MultiplexConnectionPool;
+import org.eclipse.jetty.http2.ErrorCode;
+import org.eclipse.jetty.http2.api.Session;
+import org.eclipse.jetty.http2.api.Stream;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.client.http.HttpChannelOverHTTP2;
+import org.eclipse.jetty.http2.client.http.HttpClientTransportOverHTTP2;
+import org.eclipse.jetty.http2.client.http.HttpConnectionOverHTTP2;
+import org.eclipse.jetty.http2.frames.DataFrame;
+import org.eclipse.jetty.http2.frames.GoAwayFrame;
+import org.eclipse.jetty.http2.frames.HeadersFrame;
+import org.eclipse.jetty.http2.frames.PingFrame;
+import org.eclipse.jetty.http2.frames.PushPromiseFrame;
+import org.eclipse.jetty.http2.frames.ResetFrame;
+import org.eclipse.jetty.http2.frames.SettingsFrame;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.Promise;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.JettyClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * HTTP/2 transport for MoviesRestClient: many concurrent movie requests are multiplexed as streams over a few
+ * connections instead of each needing its own pooled HTTP/1.1 connection.
+ *
+ * <pre>
+ * WebClient webClient = WebClient.builder()
+ *     .clientConnector(new Http2ClientHttpConnector(Http2TransportOptions.defaults()))
+ *     .baseUrl(baseUrl).build();
+ * </pre>
+ *
+ * The exchange is done by Jetty's HTTP/2 client, because the reactor-netty 0.8 client cannot speak HTTP/2.
+ * When the server turns out not to support HTTP/2, every later call goes through a plain reactor-netty
+ * HTTP/1.1 connector. The fallback is only considered until the first successful HTTP/2 exchange, and only for
+ * errors that prove the server never handled the request : a connection that fails before the server sent its
+ * HTTP/2 preface (the SETTINGS frame every HTTP/2 server opens with), or a stream refused with REFUSED_STREAM.
+ * Both are raised as their own exception types by hooks into the Jetty transport. A reset after the preface,
+ * refused connect or timeout is a real failure. Only GET, HEAD and OPTIONS are replayed over HTTP/1.1; a write that
+ * hits the fallback fails, and the calls after it go over HTTP/1.1.
+ */
+public class Http2ClientHttpConnector implements ClientHttpConnector, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Http2ClientHttpConnector.class);
+
+    private static final Set<HttpMethod> REPLAYABLE_METHODS = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD,
+        HttpMethod.OPTIONS);
+
+    private final Http2TransportOptions options;
+    private final HttpClient jettyClient;
+    private final ClientHttpConnector http2Connector;
+    private final ClientHttpConnector http11Connector;
+    private volatile boolean http11Only;
+    private volatile boolean http2Confirmed;
+
+    public Http2ClientHttpConnector(Http2TransportOptions options) {
+        this(options, new ReactorClientHttpConnector());
+    }
+
+    /**
+     * @param http11Connector - connector used once the server is known not to support HTTP/2
+     */
+    public Http2ClientHttpConnector(Http2TransportOptions options, ClientHttpConnector http11Connector) {
+        this.options = options;
+        this.jettyClient = createJettyClient(options);
+        this.http2Connector = new JettyClientHttpConnector(jettyClient);
+        this.http11Connector = http11Connector;
+    }
+
+    @Override
+    public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                            Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+        if (http11Only) {
+            return http11Connector.connect(method, uri, requestCallback);
+        }
+        Mono<ClientHttpResponse> http2 = http2Connector.connect(method, uri, requestCallback)
+            .doOnNext(response -> http2Confirmed = true);
+        if (!options.isFallbackToHttp11() || http2Confirmed) {
+            return http2;
+        }
+        return http2.onErrorResume(error -> isNotHttp2Server(error) || isRefusedStream(error), http2Error -> {
+            // a refused stream says nothing about HTTP/2 support, only that this request was not handled
+            if (!http11Only && isNotHttp2Server(http2Error)) {
+                http11Only = true;
+                LOGGER.warn("{} does not support HTTP/2 ({}), falling back to HTTP/1.1", uri.getAuthority(),
+                    http2Error.toString());
+            }
+            // the error says the server did not handle it, but a write is never sent twice on that word alone
+            if (!REPLAYABLE_METHODS.contains(method)) {
+                return Mono.error(http2Error);
+            }
+            return http11Connector.connect(method, uri, requestCallback)
+                .onErrorMap(http11Error -> {
+                    http11Error.addSuppressed(http2Error);
+                    return http11Error;
+                });
+        });
+    }
+
+    private static boolean isNotHttp2Server(Throwable error) {
+        return hasCause(error, NotHttp2ServerException.class);
+    }
+
+    private static boolean isRefusedStream(Throwable error) {
+        return hasCause(error, RefusedStreamException.class);
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return - true once a fallback happened and calls no longer use HTTP/2
+     */
+    public boolean isHttp11Only() {
+        return http11Only;
+    }
+
+    @Override
+    public void close() {
+        try {
+            jettyClient.stop();
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not stop the HTTP/2 client", ex);
+        }
+    }
+
+    private static HttpClient createJettyClient(Http2TransportOptions options) {
+        if (options.isTls() && System.getProperty("java.specification.version").startsWith("1.")) {
+            throw new IllegalStateException("h2 over TLS needs Java 9+ : the ALPN client on the classpath "
+                + "(jetty-alpn-java-client) does not run on Java 8. Use h2c (tls false) or the HTTP/1.1 connector");
+        }
+        HTTP2Client http2Client = new HTTP2Client();
+        http2Client.setInitialSessionRecvWindow(options.getInitialSessionRecvWindow());
+        http2Client.setInitialStreamRecvWindow(options.getInitialStreamRecvWindow());
+
+        HttpClientTransportOverHTTP2 transport = new FailureTypingTransport(http2Client);
+        transport.setUseALPN(options.isTls());
+        transport.setConnectionPoolFactory(destination -> new MultiplexConnectionPool(destination,
+            options.getMaxConnections(), destination, options.getMaxConcurrentStreams()));
+
+        HttpClient httpClient = options.isTls()
+            ? new HttpClient(transport, new SslContextFactory.Client(options.isTrustAll()))
+            : new HttpClient(transport, null);
+        httpClient.setMaxConnectionsPerDestination(options.getMaxConnections());
+        httpClient.setConnectTimeout(options.getConnectTimeout().toMillis());
+        httpClient.setIdleTimeout(options.getIdleTimeout().toMillis());
+        httpClient.setFollowRedirects(false);
+        return httpClient;
+    }
+
+    /**
+     * The server closed or broke the connection before sending its HTTP/2 preface, so it never handled a request.
+     */
+    public static class NotHttp2ServerException extends IOException {
+
+        NotHttp2ServerException(Throwable cause) {
+            super("Connection failed before the server's HTTP/2 preface", cause);
+        }
+    }
+
+    /**
+     * The server reset the stream with REFUSED_STREAM, which guarantees the request was not processed.
+     */
+    public static class RefusedStreamException extends IOException {
+
+        RefusedStreamException() {
+            super(ErrorCode.REFUSED_STREAM_ERROR.name());
+        }
+    }
+
+    /**
+     * Jetty reports both failures as plain IOExceptions with a formatted message; this transport raises them as
+     * the types above instead, from the session and stream events that tell them apart.
+     */
+    private static class FailureTypingTransport extends HttpClientTransportOverHTTP2 {
+
+        FailureTypingTransport(HTTP2Client client) {
+            super(client);
+        }
+
+        @Override
+        protected void connect(SslContextFactory sslContextFactory, InetSocketAddress address,
+                               Session.Listener listener, Promise<Session> promise, Map<String, Object> context) {
+            super.connect(sslContextFactory, address, new PrefaceTrackingListener(listener), promise, context);
+        }
+
+        @Override
+        protected HttpConnectionOverHTTP2 newHttpConnection(HttpDestination destination, Session session) {
+            return new HttpConnectionOverHTTP2(destination, session) {
+                @Override
+                protected HttpChannelOverHTTP2 newHttpChannel() {
+                    return new HttpChannelOverHTTP2(getHttpDestination(), this, getSession()) {
+                        private final Stream.Listener listener = new RefusedStreamListener(this,
+                            super.getStreamListener());
+
+                        @Override
+                        public Stream.Listener getStreamListener() {
+                            return listener;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private static class PrefaceTrackingListener implements Session.Listener {
+
+        private final Session.Listener delegate;
+        private volatile boolean prefaceReceived;
+
+        PrefaceTrackingListener(Session.Listener delegate) {
+            this.delegate = delegate;
+        }
+
+        private Throwable typed(Throwable failure) {
+            return prefaceReceived ? failure : new NotHttp2ServerException(failure);
+        }
+
+        @Override
+        public Map<Integer, Integer> onPreface(Session session) {
+            return delegate.onPreface(session);
+        }
+
+        @Override
+        public Stream.Listener onNewStream(Stream stream, HeadersFrame frame) {
+            return delegate.onNewStream(stream, frame);
+        }
+
+        @Override
+        public void onSettings(Session session, SettingsFrame frame) {
+            prefaceReceived = true;
+            delegate.onSettings(session, frame);
+        }
+
+        @Override
+        public void onPing(Session session, PingFrame frame) {
+            delegate.onPing(session, frame);
+        }
+
+        @Override
+        public void onReset(Session session, ResetFrame frame) {
+            delegate.onReset(session, frame);
+        }
+
+        @Override
+        public void onClose(Session session, GoAwayFrame frame, Callback callback) {
+            delegate.onClose(session, frame, callback);
+        }
+
+        @Override
+        public void onClose(Session session, GoAwayFrame frame) {
+            delegate.onClose(session, frame);
+        }
+
+        @Override
+        public boolean onIdleTimeout(Session session) {
+            return delegate.onIdleTimeout(session);
+        }
+
+        @Override
+        public void onFailure(Session session, Throwable failure, Callback callback) {
+            delegate.onFailure(session, typed(failure), callback);
+        }
+
+        @Override
+        public void onFailure(Session session, Throwable failure) {
+            delegate.onFailure(session, typed(failure));
+        }
+    }
+
+    private static class RefusedStreamListener implements Stream.Listener {
+
+        private final HttpChannelOverHTTP2 channel;
+        private final Stream.Listener delegate;
+
+        RefusedStreamListener(HttpChannelOverHTTP2 channel, Stream.Listener delegate) {
+            this.channel = channel;
+            this.delegate = delegate;
+        }
+
+        // aborting first makes Jetty's own reset handling a no-op for the exchange
+        private void abortIfRefused(ResetFrame frame) {
+            HttpExchange exchange = channel.getHttpExchange();
+            if (exchange != null && ErrorCode.from(frame.getError()) == ErrorCode.REFUSED_STREAM_ERROR) {
+                exchange.getRequest().abort(new RefusedStreamException());
+            }
+        }
+
+        @Override
+        public void onHeaders(Stream stream, HeadersFrame frame) {
+            delegate.onHeaders(stream, frame);
+        }
+
+        @Override
+        public Stream.Listener onPush(Stream stream, PushPromiseFrame frame) {
+            return delegate.onPush(stream, frame);
+        }
+
+        @Override
+        public void onData(Stream stream, DataFrame frame, Callback callback) {
+            delegate.onData(stream, frame, callback);
+        }
+
+        @Override
+        public void onReset(Stream stream, ResetFrame frame, Callback callback) {
+            abortIfRefused(frame);
+            delegate.onReset(stream, frame, callback);
+        }
+
+        @Override
+        public void onReset(Stream stream, ResetFrame frame) {
+            abortIfRefused(frame);
+            delegate.onReset(stream, frame);
+        }
+
+        @Override
+        public boolean onIdleTimeout(Stream stream, Throwable x) {
+            return delegate.onIdleTimeout(stream, x);
+        }
+
+        @Override
+        public void onFailure(Stream stream, int error, String reason, Callback callback) {
+            delegate.onFailure(stream, error, reason, callback);
+        }
+
+        @Override
+        public void onClosed(Stream stream) {
+            delegate.onClosed(stream);
+        }
+    }
+}
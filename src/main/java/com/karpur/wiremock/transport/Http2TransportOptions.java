@@ -0,0 +1,67 @@
+package com.karpur.wiremock.transport;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link Http2ClientHttpConnector}.
+ */
+@Getter
+@Builder
+@ToString
+public class Http2TransportOptions {
+
+    /**
+     * true : h2 negotiated through ALPN over TLS. Needs Java 9+, the connector refuses it on Java 8 : the ALPN
+     * client on the classpath (jetty-alpn-java-client) is built for Java 9, and Jetty 9.4.19 has no ALPN client for
+     * 8u252+. A TLS server without h2 closes the connection during ALPN, which is not taken as a reason to fall back.
+     * false : h2c with prior knowledge over cleartext.
+     */
+    @Builder.Default
+    private final boolean tls = false;
+
+    /**
+     * Trust any server certificate; only meant for local stand-ins with self-signed certificates.
+     */
+    @Builder.Default
+    private final boolean trustAll = false;
+
+    /**
+     * Connections opened per host. Each one carries up to {@link #maxConcurrentStreams} requests at once.
+     */
+    @Builder.Default
+    private final int maxConnections = 2;
+
+    @Builder.Default
+    private final int maxConcurrentStreams = 128;
+
+    /**
+     * Flow-control receive windows in bytes. The HTTP/2 default of 64KB throttles large bodies such as
+     * all movies, so both are raised by default.
+     */
+    @Builder.Default
+    private final int initialSessionRecvWindow = 16 * 1024 * 1024;
+
+    @Builder.Default
+    private final int initialStreamRecvWindow = 8 * 1024 * 1024;
+
+    @Builder.Default
+    private final Duration connectTimeout = Duration.ofSeconds(5);
+
+    @Builder.Default
+    private final Duration idleTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Switch to HTTP/1.1 for good when the server turns out not to speak HTTP/2. Reads that hit the switch are
+     * replayed over HTTP/1.1, writes are not.
+     */
+    @Builder.Default
+    private final boolean fallbackToHttp11 = true;
+
+    public static Http2TransportOptions defaults() {
+        return Http2TransportOptions.builder().build();
+    }
+}
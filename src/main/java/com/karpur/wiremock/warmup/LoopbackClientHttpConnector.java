@@ -0,0 +1,129 @@
+package com.karpur.wiremock.warmup;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.client.reactive.AbstractClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Connector that never touches the network: the encoded request body is handed straight back as a 200 response
+ * with the same content type. Used to push a sample {@code Movie} through the exact encoder / decoder instances of
+ * a WebClient (via {@code webClient.mutate().clientConnector(...)}) so their Jackson caches are built up front.
+ */
+class LoopbackClientHttpConnector implements ClientHttpConnector {
+
+    @Override
+    public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                            Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+        LoopbackRequest request = new LoopbackRequest(method, uri);
+        return requestCallback.apply(request)
+            .then(Mono.fromSupplier(() -> new LoopbackResponse(request.getHeaders(), request.body)));
+    }
+
+    private static class LoopbackRequest extends AbstractClientHttpRequest {
+
+        private final HttpMethod method;
+        private final URI uri;
+        private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+        private List<DataBuffer> body = Collections.emptyList();
+
+        LoopbackRequest(HttpMethod method, URI uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        public DataBufferFactory bufferFactory() {
+            return bufferFactory;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return doCommit(() -> Flux.from(body)
+                .collectList()
+                .doOnNext(buffers -> this.body = Collections.unmodifiableList(buffers))
+                .then());
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMap(Flux::from));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return doCommit();
+        }
+
+        @Override
+        protected void applyHeaders() {
+        }
+
+        @Override
+        protected void applyCookies() {
+        }
+    }
+
+    private static class LoopbackResponse implements ClientHttpResponse {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final List<DataBuffer> body;
+
+        LoopbackResponse(HttpHeaders requestHeaders, List<DataBuffer> body) {
+            this.headers.setContentType(requestHeaders.getContentType());
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return HttpStatus.OK.value();
+        }
+
+        @Override
+        public MultiValueMap<String, ResponseCookie> getCookies() {
+            return new LinkedMultiValueMap<>();
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.fromIterable(body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.karpur.wiremock.warmup;
+
+import com.karpur.wiremock.dto.Movie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pays the one-off costs of a fresh WebClient (DNS, TCP connects, event loop start-up, Jackson serializer
+ * creation, JIT of the decode path) up front instead of on the first calls after a deploy.
+ */
+public class MoviesClientWarmUp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MoviesClientWarmUp.class);
+
+    private static final String LOOPBACK_URI = "http://warm-up.invalid/";
+
+    private final WebClient webClient;
+
+    public MoviesClientWarmUp(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    /**
+     * Best effort: a step that runs past {@code options.getTimeout()} is cut short and flagged in the report
+     * instead of failing the caller.
+     */
+    public WarmUpReport warmUp(WarmUpOptions options) {
+        long start = System.nanoTime();
+
+        // the loopback client shares the original exchange strategies, so the same Jackson mapper is primed; the
+        // filters are dropped, priming is not a call to the movie service and must not count as one
+        WebClient loopback = webClient.mutate()
+            .filters(List::clear)
+            .clientConnector(new LoopbackClientHttpConnector())
+            .build();
+        Movie primed = await(loopback.post().uri(LOOPBACK_URI)
+            .syncBody(options.getSampleMovie())
+            .retrieve()
+            .bodyToMono(Movie.class), options, "codec priming");
+        boolean timedOut = primed == null;
+        int decodeIterations = 0;
+        if (!timedOut) {
+            List<Movie> sampleList = Collections.nCopies(16, primed);
+            while (decodeIterations < options.getDecodeIterations() && !timedOut) {
+                timedOut = await(loopback.post().uri(LOOPBACK_URI)
+                    .syncBody(sampleList)
+                    .retrieve()
+                    .bodyToFlux(Movie.class)
+                    .collectList(), options, "codec priming") == null;
+                if (!timedOut) {
+                    decodeIterations++;
+                }
+            }
+        }
+        long codecsPrimed = System.nanoTime();
+
+        AtomicInteger opened = new AtomicInteger();
+        timedOut |= !openConnections(options, opened);
+        long end = System.nanoTime();
+
+        WarmUpReport report = new WarmUpReport(TimeUnit.NANOSECONDS.toMillis(end - start),
+            TimeUnit.NANOSECONDS.toMillis(codecsPrimed - start), TimeUnit.NANOSECONDS.toMillis(end - codecsPrimed),
+            options.getConnections(), opened.get(), decodeIterations, timedOut);
+        LOGGER.info("MoviesRestClient warmed up {} ", report);
+        return report;
+    }
+
+    /**
+     * All requests are in flight at the same time, so the pool has to open one connection per request
+     * (up to its own maximum) instead of reusing a single one.
+     *
+     * @param opened - incremented for every request that got any HTTP response back
+     * @return - false if the requests still in flight were cancelled at the timeout
+     */
+    private boolean openConnections(WarmUpOptions options, AtomicInteger opened) {
+        if (options.getConnections() <= 0) {
+            return true;
+        }
+        return await(Flux.range(0, options.getConnections())
+            .flatMap(i -> webClient.get().uri(options.getConnectionUriTemplate(), options.getConnectionUriVariables())
+                .exchange()
+                .flatMap(response -> response.bodyToFlux(DataBuffer.class)
+                    .map(DataBufferUtils::release) //drain the body so the connection goes back to the pool
+                    .then(Mono.just(1)))
+                .onErrorResume(ex -> {
+                    LOGGER.warn("Warm-up connection failed : {} ", ex.getMessage());
+                    return Mono.empty();
+                }), options.getConnections())
+            .doOnNext(response -> opened.incrementAndGet())
+            .count(), options, "opening connections") != null;
+    }
+
+    /**
+     * @return - the value, or null if the step timed out
+     */
+    private static <T> T await(Mono<T> step, WarmUpOptions options, String name) {
+        return step
+            .timeout(options.getTimeout())
+            .onErrorResume(TimeoutException.class, ex -> {
+                LOGGER.warn("Warm-up step {} timed out after {}", name, options.getTimeout());
+                return Mono.empty();
+            })
+            .block();
+    }
+}
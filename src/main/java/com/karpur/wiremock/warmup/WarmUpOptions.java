@@ -0,0 +1,57 @@
+package com.karpur.wiremock.warmup;
+
+import com.karpur.wiremock.dto.Movie;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static com.karpur.wiremock.constants.MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1;
+
+/**
+ * What {@link MoviesClientWarmUp} should do before the first real call.
+ */
+@Getter
+@Builder
+@ToString
+public class WarmUpOptions {
+
+    /**
+     * Number of concurrent requests made to fill the connection pool; 0 skips the network entirely.
+     */
+    @Builder.Default
+    private final int connections = 4;
+
+    /**
+     * Cheap request used to open the connections. Its response status is irrelevant, a 404 still leaves a
+     * connected, pooled channel behind.
+     */
+    @Builder.Default
+    private final String connectionUriTemplate = MOVIE_BY_ID_PATH_PARAM_V1;
+
+    @Builder.Default
+    private final Object[] connectionUriVariables = {1};
+
+    /**
+     * Movie pushed through the client's encoder and decoder to build the Jackson serializers for Movie and LocalDate.
+     */
+    @Builder.Default
+    private final Movie sampleMovie = new Movie(1L, "Batman Begins", 2005, "Christian Bale, Katie Holmes , Liam Neeson",
+        LocalDate.of(2005, 6, 15));
+
+    /**
+     * Extra round trips of a list of sample movies through the codecs, giving the JIT a chance to compile the
+     * decode path. 0 only primes the caches.
+     */
+    @Builder.Default
+    private final int decodeIterations = 0;
+
+    @Builder.Default
+    private final Duration timeout = Duration.ofSeconds(10);
+
+    public static WarmUpOptions defaults() {
+        return WarmUpOptions.builder().build();
+    }
+}
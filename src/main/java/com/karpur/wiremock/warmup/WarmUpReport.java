@@ -0,0 +1,26 @@
+package com.karpur.wiremock.warmup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Outcome of a warm-up; durations are in milliseconds.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class WarmUpReport {
+
+    private final long durationMillis;
+    private final long codecPrimingMillis;
+    private final long connectionMillis;
+    private final int connectionsRequested;
+    private final int connectionsOpened;
+    private final int decodeIterations;
+
+    /**
+     * A step ran past the warm-up timeout and was cut short; the client works, only less of it is warm.
+     */
+    private final boolean timedOut;
+}
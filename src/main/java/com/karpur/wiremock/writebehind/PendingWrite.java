@@ -0,0 +1,47 @@
+package com.karpur.wiremock.writebehind;
+
+import com.karpur.wiremock.dto.Movie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A queued write plus every caller (and log sequence number) it stands for after coalescing.
+ */
+class PendingWrite {
+
+    enum Type { ADD, UPDATE, DELETE }
+
+    final Type type;
+    final Integer movieId;
+    Movie movie;
+    final List<Long> seqs = new ArrayList<>();
+    final List<CompletableFuture<Object>> futures = new ArrayList<>();
+
+    PendingWrite(Type type, Integer movieId, Movie movie, long seq, CompletableFuture<Object> future) {
+        this.type = type;
+        this.movieId = movieId;
+        this.movie = movie;
+        this.seqs.add(seq);
+        this.futures.add(future);
+    }
+
+    /**
+     * Folds a later update of the same movie into this one : only the latest version is sent, and every caller
+     * gets its result.
+     */
+    void absorb(PendingWrite later) {
+        this.movie = later.movie;
+        this.seqs.addAll(later.seqs);
+        this.futures.addAll(later.futures);
+    }
+
+    void complete(Object result) {
+        futures.forEach(future -> future.complete(result));
+    }
+
+    void fail(Throwable error) {
+        futures.forEach(future -> future.completeExceptionally(error));
+    }
+}
@@ -0,0 +1,144 @@
+package com.karpur.wiremock.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only JSON lines log of the writes accepted by {@link WriteBehindMoviesClient}. A write is appended when it
+ * is queued and a DONE marker when the movie service has answered, so the writes still pending after a crash are
+ * the ones without a marker. Once the log holds maxEntries lines, it is compacted : rewritten with only the pending
+ * writes and swapped in with an atomic rename, so a crash leaves either the old or the new log.
+ */
+class WriteBehindLog implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final Path file;
+    private final boolean sync;
+    private final int maxEntries;
+    // the writes appended and not yet DONE, what a compacted log holds
+    private final Map<Long, WriteLogEntry> pending = new LinkedHashMap<>();
+    private FileChannel channel;
+    private int lines;
+
+    WriteBehindLog(Path file, boolean sync, int maxEntries) {
+        this.file = file;
+        this.sync = sync;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Reads the writes that never got their DONE marker and compacts the log down to them, with the same atomic
+     * swap as {@link #compact()}. The entries stay logged under their own seq; the caller queues them again without
+     * appending them.
+     */
+    synchronized List<WriteLogEntry> recover() throws IOException {
+        Map<Long, WriteLogEntry> unfinished = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    WriteLogEntry entry;
+                    try {
+                        entry = MAPPER.readValue(line, WriteLogEntry.class);
+                    } catch (IOException ex) {
+                        break; //torn last line of a crashed append, nothing after it can be trusted
+                    }
+                    if (WriteLogEntry.DONE.equals(entry.getOp())) {
+                        unfinished.remove(entry.getSeq());
+                    } else {
+                        unfinished.put(entry.getSeq(), entry);
+                    }
+                }
+            }
+        }
+        pending.putAll(unfinished);
+        compact();
+        return new ArrayList<>(unfinished.values());
+    }
+
+    synchronized void append(WriteLogEntry entry) {
+        try {
+            write(channel, entry);
+            pending.put(entry.getSeq(), entry);
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to append to write-behind log " + file, ex);
+        }
+    }
+
+    synchronized void done(List<Long> seqs) {
+        try {
+            for (Long seq : seqs) {
+                write(channel, new WriteLogEntry(seq, WriteLogEntry.DONE, null, null));
+                pending.remove(seq);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+            // not while most lines are still pending, or every done would rewrite the whole log
+            if (lines >= maxEntries && lines >= 2 * pending.size()) {
+                compact();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to append to write-behind log " + file, ex);
+        }
+    }
+
+    private void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compacting");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            lines = 0;
+            for (WriteLogEntry entry : pending.values()) {
+                write(out, entry);
+            }
+            out.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void write(FileChannel target, WriteLogEntry entry) throws IOException {
+        byte[] line = (MAPPER.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        lines++;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.karpur.wiremock.writebehind;
+
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.service.MoviesRestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in asynchronous write-behind mode on top of {@link MoviesRestClient}.
+ *
+ * Writes are queued and sent in the background, either once {@link WriteBehindOptions#getMaxPendingWrites()} of them
+ * are pending or every {@link WriteBehindOptions#getFlushInterval()}, with at most
+ * {@link WriteBehindOptions#getMaxConcurrentWrites()} calls in flight. Repeated updates of the same movie id collapse
+ * into the latest version, and a delete supersedes the updates still pending for that id. Writes of the same id are
+ * sent one after the other, in the order they were queued.
+ *
+ * Every write returns a future completed with the answer of the movie service, or exceptionally with its
+ * {@link com.karpur.wiremock.exception.MovieErrorResponse}. Failed writes are not retried.
+ */
+public class WriteBehindMoviesClient implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindMoviesClient.class);
+
+    private final MoviesRestClient moviesRestClient;
+    private final WriteBehindOptions options;
+    private final WriteBehindLog log;
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService writers;
+
+    // one chain of writes per movie id (adds get a key of their own), oldest first
+    private final Map<String, Deque<PendingWrite>> pending = new LinkedHashMap<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private final List<CompletableFuture<Void>> running = new ArrayList<>();
+    private int pendingCount;
+    private long nextSeq;
+    private boolean closed;
+
+    public WriteBehindMoviesClient(MoviesRestClient moviesRestClient) {
+        this(moviesRestClient, WriteBehindOptions.defaults());
+    }
+
+    public WriteBehindMoviesClient(MoviesRestClient moviesRestClient, WriteBehindOptions options) {
+        this.moviesRestClient = moviesRestClient;
+        this.options = options;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(daemonThreads("movies-write-behind-flusher"));
+        this.writers = Executors.newFixedThreadPool(options.getMaxConcurrentWrites(), daemonThreads("movies-write-behind-writer"));
+
+        if (options.getLogFile() != null) {
+            this.log = new WriteBehindLog(options.getLogFile(), options.isSyncLog(), options.getMaxLogEntries());
+            try {
+                List<WriteLogEntry> recovered = log.recover();
+                recovered.forEach(this::requeue);
+                if (!recovered.isEmpty()) {
+                    LOGGER.info("Recovered {} pending writes from {} ", recovered.size(), options.getLogFile());
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to open write-behind log " + options.getLogFile(), ex);
+            }
+        } else {
+            this.log = null;
+        }
+
+        long interval = options.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<Movie> addNewMovie(Movie newMovie) {
+        return enqueue(PendingWrite.Type.ADD, null, newMovie);
+    }
+
+    public CompletableFuture<Movie> updateMovie(Integer movieId, Movie movie) {
+        return enqueue(PendingWrite.Type.UPDATE, movieId, movie);
+    }
+
+    /**
+     * Updates of this movie that are still pending are dropped; their futures complete with null.
+     */
+    public CompletableFuture<String> deleteMovieById(Integer movieId) {
+        return enqueue(PendingWrite.Type.DELETE, movieId, null);
+    }
+
+    /**
+     * Number of queued writes that have not been answered yet, after coalescing.
+     */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Sends every pending write whose movie id has no write in flight.
+     *
+     * @return - completes once the writes sent by this flush have been answered
+     */
+    public CompletableFuture<Void> flush() {
+        List<PendingWrite> batch = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, Deque<PendingWrite>> chain : pending.entrySet()) {
+                if (!inFlight.contains(chain.getKey())) {
+                    batch.add(chain.getValue().peekFirst());
+                    inFlight.add(chain.getKey());
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        LOGGER.debug("Flushing {} writes ", batch.size());
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            // callers are completed only once the chain has moved on, so they see the write as no longer pending
+            CompletableFuture<Void> done = CompletableFuture.supplyAsync(() -> send(write), writers)
+                .handle((result, error) -> {
+                    finished(write);
+                    if (error != null) {
+                        write.fail(error instanceof CompletionException ? error.getCause() : error);
+                    } else {
+                        write.complete(result);
+                    }
+                    return null;
+                });
+            sent.add(done);
+        }
+        synchronized (this) {
+            running.removeIf(CompletableFuture::isDone);
+            running.addAll(sent);
+        }
+        return CompletableFuture.allOf(sent.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Stops taking writes and blocks until everything queued so far has been sent.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flusher.shutdownNow();
+        // pendingCount still counts the writes in flight, so zero means everything has been answered
+        while (getPendingCount() > 0) {
+            CompletableFuture<Void> outstanding;
+            flush();
+            synchronized (this) {
+                outstanding = CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0]));
+            }
+            outstanding.join();
+        }
+        writers.shutdown();
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException ex) {
+                LOGGER.error("Unable to close write-behind log {} ", options.getLogFile(), ex);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> enqueue(PendingWrite.Type type, Integer movieId, Movie movie) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Write-behind client is closed");
+            }
+            long seq = nextSeq++;
+            if (log != null) {
+                log.append(new WriteLogEntry(seq, type.name(), movieId, movie));
+            }
+            add(new PendingWrite(type, movieId, movie, seq, future));
+            // under the lock close() takes before shutting the flusher down, so the flusher is still running
+            if (pendingCount >= options.getMaxPendingWrites()) {
+                flusher.execute(this::flush);
+            }
+        }
+        return (CompletableFuture<T>) future;
+    }
+
+    // recover() left the entry in the log under its seq, so only the seqs handed out next have to come after it
+    private synchronized void requeue(WriteLogEntry entry) {
+        nextSeq = Math.max(nextSeq, entry.getSeq() + 1);
+        PendingWrite.Type type = PendingWrite.Type.valueOf(entry.getOp());
+        add(new PendingWrite(type, entry.getMovieId(), entry.getMovie(), entry.getSeq(), new CompletableFuture<>()));
+    }
+
+    private void add(PendingWrite write) {
+        String key = keyOf(write);
+        Deque<PendingWrite> chain = pending.computeIfAbsent(key, k -> new ArrayDeque<>());
+        // the head of a chain that is in flight can no longer change
+        boolean headSent = inFlight.contains(key);
+        PendingWrite last = chain.peekLast();
+
+        if (write.type == PendingWrite.Type.UPDATE && last != null && last.type == PendingWrite.Type.UPDATE
+            && !(headSent && chain.size() == 1)) {
+            last.absorb(write);
+            return;
+        }
+        if (write.type == PendingWrite.Type.DELETE) {
+            Iterator<PendingWrite> writes = chain.descendingIterator();
+            while (writes.hasNext() && chain.size() > (headSent ? 1 : 0)) {
+                PendingWrite superseded = writes.next();
+                if (superseded.type != PendingWrite.Type.UPDATE) {
+                    break;
+                }
+                writes.remove();
+                pendingCount--;
+                superseded.complete(null);
+                if (log != null) {
+                    log.done(superseded.seqs);
+                }
+            }
+            last = chain.peekLast();
+            if (last != null && last.type == PendingWrite.Type.DELETE && !(headSent && chain.size() == 1)) {
+                last.absorb(write);
+                return;
+            }
+        }
+        chain.addLast(write);
+        pendingCount++;
+    }
+
+    private Object send(PendingWrite write) {
+        try {
+            Object result;
+            switch (write.type) {
+                case ADD:
+                    result = moviesRestClient.addNewMovie(write.movie);
+                    break;
+                case UPDATE:
+                    result = moviesRestClient.updateMovie(write.movieId, write.movie);
+                    break;
+                default:
+                    result = moviesRestClient.deleteMovieById(write.movieId);
+            }
+            return result;
+        } catch (RuntimeException ex) {
+            LOGGER.error("Write-behind {} of movie {} failed : {} ", write.type, write.movieId, ex.getMessage());
+            throw ex;
+        } finally {
+            if (log != null) {
+                log.done(write.seqs);
+            }
+        }
+    }
+
+    private synchronized void finished(PendingWrite write) {
+        String key = keyOf(write);
+        Deque<PendingWrite> chain = pending.get(key);
+        chain.removeFirst();
+        pendingCount--;
+        if (chain.isEmpty()) {
+            pending.remove(key);
+        }
+        inFlight.remove(key);
+    }
+
+    private static String keyOf(PendingWrite write) {
+        return write.type == PendingWrite.Type.ADD ? "add-" + write.seqs.get(0) : "id-" + write.movieId;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
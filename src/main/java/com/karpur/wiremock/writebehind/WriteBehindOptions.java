@@ -0,0 +1,58 @@
+package com.karpur.wiremock.writebehind;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the {@link WriteBehindMoviesClient}.
+ */
+@Getter
+@Builder
+@ToString
+public class WriteBehindOptions {
+
+    /**
+     * A flush starts as soon as this many writes are pending.
+     */
+    @Builder.Default
+    private final int maxPendingWrites = 100;
+
+    /**
+     * Pending writes are flushed at least this often.
+     */
+    @Builder.Default
+    private final Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Number of writes sent to the movie service at the same time.
+     */
+    @Builder.Default
+    private final int maxConcurrentWrites = 4;
+
+    /**
+     * Append-only log of queued writes, replayed on start so writes queued before a crash are not lost.
+     * null disables the log; close() always flushes.
+     */
+    private final Path logFile;
+
+    /**
+     * fsync the log after every append. Safer, but every write then pays for a disk flush.
+     */
+    @Builder.Default
+    private final boolean syncLog = false;
+
+    /**
+     * Once the log holds this many lines it is rewritten with only the writes still pending, so it does not grow
+     * for as long as the client runs.
+     */
+    @Builder.Default
+    private final int maxLogEntries = 10_000;
+
+    public static WriteBehindOptions defaults() {
+        return WriteBehindOptions.builder().build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.karpur.wiremock.writebehind;
+
+import com.karpur.wiremock.dto.Movie;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the write-behind log: either a queued write or the DONE marker of an earlier one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+class WriteLogEntry {
+
+    static final String DONE = "DONE";
+
+    private long seq;
+    private String op;
+    private Integer movieId;
+    private Movie movie;
+}
@@ -0,0 +1,79 @@
+package com.karpur.wiremock.latency;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latency observed for one endpoint template (Example : "GET /movieservice/v1/movie/{id}") during a recording,
+ * together with the lognormal distribution fitted to it.
+ */
+public class EndpointLatencyProfile {
+
+    private String endpoint;
+    private List<Integer> samplesMillis = new ArrayList<>();
+    private double medianMillis;
+    private double sigma;
+
+    public EndpointLatencyProfile() {
+    }
+
+    public EndpointLatencyProfile(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Maximum likelihood fit of a lognormal distribution: mu and sigma are the mean and standard deviation of
+     * ln(latency). WireMock's lognormal delay is parameterised by the median, which is e^mu. Being the maximum
+     * likelihood estimate, sigma divides by n rather than n - 1 and so runs slightly low on small recordings.
+     */
+    public EndpointLatencyProfile fit() {
+        if (samplesMillis.isEmpty()) {
+            return this;
+        }
+        double sum = 0;
+        for (Integer sample : samplesMillis) {
+            sum += Math.log(Math.max(1, sample));
+        }
+        double mu = sum / samplesMillis.size();
+        double squares = 0;
+        for (Integer sample : samplesMillis) {
+            double deviation = Math.log(Math.max(1, sample)) - mu;
+            squares += deviation * deviation;
+        }
+        this.medianMillis = Math.exp(mu);
+        this.sigma = Math.sqrt(squares / samplesMillis.size());
+        return this;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public List<Integer> getSamplesMillis() {
+        return samplesMillis;
+    }
+
+    public void setSamplesMillis(List<Integer> samplesMillis) {
+        this.samplesMillis = samplesMillis;
+    }
+
+    public double getMedianMillis() {
+        return medianMillis;
+    }
+
+    public void setMedianMillis(double medianMillis) {
+        this.medianMillis = medianMillis;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+
+    public void setSigma(double sigma) {
+        this.sigma = sigma;
+    }
+}
@@ -0,0 +1,113 @@
+package com.karpur.wiremock.latency;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Gzip;
+import com.github.tomakehurst.wiremock.common.Timing;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.LoggedResponse;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.karpur.wiremock.constants.MoviesAppConstants.*;
+
+/**
+ * Records real traffic by proxying every request through the given WireMock server to the target service.
+ *
+ * For each request the response body is kept (the last one wins per url) and the time WireMock spent fetching
+ * it from the target is added to the latency samples of its endpoint template. {@link #stop()} fits a
+ * lognormal distribution per endpoint so {@link LatencyReplayer} can reproduce the tail offline.
+ */
+public class LatencyRecorder {
+
+    private static final List<String> ENDPOINT_TEMPLATES = Arrays.asList(GET_ALL_MOVIES_V1, MOVIE_BY_ID_PATH_PARAM_V1,
+        MOVIE_BY_NAME_QUERY_PARAM_V1, MOVIE_BY_YEAR_QUERY_PARAM_V1, ADD_MOVIE_V1, MOVIE_BY_NAME_PATH_PARAM_V1,
+        MOVIE_CHANGES_QUERY_PARAM_V1, MOVIES_BY_IDS_QUERY_PARAM_V1);
+
+    private final WireMockServer wireMockServer;
+    private final String targetBaseUrl;
+    private StubMapping proxyStub;
+
+    public LatencyRecorder(WireMockServer wireMockServer, String targetBaseUrl) {
+        this.wireMockServer = wireMockServer;
+        this.targetBaseUrl = targetBaseUrl;
+    }
+
+    public void start() {
+        wireMockServer.resetRequests();
+        proxyStub = wireMockServer.stubFor(any(anyUrl())
+            .atPriority(1)
+            .willReturn(aResponse().proxiedFrom(targetBaseUrl)));
+    }
+
+    public LatencyRecording stop() {
+        wireMockServer.removeStub(proxyStub);
+        Map<String, RecordedResponse> responses = new LinkedHashMap<>();
+        LatencyRecording recording = new LatencyRecording();
+
+        List<ServeEvent> serveEvents = new ArrayList<>(wireMockServer.getAllServeEvents());
+        for (int i = serveEvents.size() - 1; i >= 0; i--) { // serve events are returned newest first
+            ServeEvent serveEvent = serveEvents.get(i);
+            if (!isProxied(serveEvent) || serveEvent.getResponse().getFault() != null) {
+                continue;
+            }
+            LoggedRequest request = serveEvent.getRequest();
+            LoggedResponse response = serveEvent.getResponse();
+            String endpoint = endpointOf(request.getMethod().getName(), request.getUrl());
+
+            responses.put(request.getMethod().getName() + " " + request.getUrl(), new RecordedResponse(
+                request.getMethod().getName(), request.getUrl(), endpoint, response.getStatus(),
+                contentTypeOf(response), bodyOf(response)));
+
+            Timing timing = serveEvent.getTiming();
+            if (timing != null && timing != Timing.UNTIMED) {
+                recording.getProfiles().computeIfAbsent(endpoint, EndpointLatencyProfile::new)
+                    .getSamplesMillis().add(timing.getProcessTime());
+            }
+        }
+        recording.getResponses().addAll(responses.values());
+        recording.getProfiles().values().forEach(EndpointLatencyProfile::fit);
+        return recording;
+    }
+
+    /**
+     * @return - the request method plus the MoviesAppConstants template the url belongs to
+     * (Example : "GET /movieservice/v1/movie/{id}"), or plus the raw path when no template matches
+     */
+    public static String endpointOf(String method, String url) {
+        String path = url.contains("?") ? url.substring(0, url.indexOf('?')) : url;
+        for (String template : ENDPOINT_TEMPLATES) {
+            if (path.matches(template.replaceAll("\\{[^}]+}", "[^/]+"))) {
+                return method + " " + template;
+            }
+        }
+        return method + " " + path;
+    }
+
+    private boolean isProxied(ServeEvent serveEvent) {
+        return serveEvent.getStubMapping() != null && proxyStub.getId().equals(serveEvent.getStubMapping().getId());
+    }
+
+    /**
+     * Proxied responses are logged as received, so a gzip encoded body has to be inflated before it can be
+     * replayed without its Content-Encoding header.
+     */
+    private static String bodyOf(LoggedResponse response) {
+        byte[] body = response.getBody();
+        return body != null && Gzip.isGzipped(body) ? Gzip.unGzipToString(body) : response.getBodyAsString();
+    }
+
+    private static String contentTypeOf(LoggedResponse response) {
+        HttpHeader contentType = response.getHeaders() == null ? null : response.getHeaders().getHeader("Content-Type");
+        return contentType != null && contentType.isPresent() ? contentType.firstValue() : null;
+    }
+}
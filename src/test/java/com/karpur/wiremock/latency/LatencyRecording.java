@@ -0,0 +1,51 @@
+package com.karpur.wiremock.latency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything captured by a {@link LatencyRecorder}: the response bodies per url and the latency profile per
+ * endpoint. Saved as a single JSON file so a replay can run fully offline.
+ */
+public class LatencyRecording {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private List<RecordedResponse> responses = new ArrayList<>();
+    private Map<String, EndpointLatencyProfile> profiles = new LinkedHashMap<>();
+
+    public static LatencyRecording load(File file) throws IOException {
+        return MAPPER.readValue(file, LatencyRecording.class);
+    }
+
+    public void save(File file) throws IOException {
+        MAPPER.writeValue(file, this);
+    }
+
+    public EndpointLatencyProfile profileFor(String endpoint) {
+        return profiles.get(endpoint);
+    }
+
+    public List<RecordedResponse> getResponses() {
+        return responses;
+    }
+
+    public void setResponses(List<RecordedResponse> responses) {
+        this.responses = responses;
+    }
+
+    public Map<String, EndpointLatencyProfile> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(Map<String, EndpointLatencyProfile> profiles) {
+        this.profiles = profiles;
+    }
+}
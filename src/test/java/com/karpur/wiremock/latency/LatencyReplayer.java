@@ -0,0 +1,38 @@
+package com.karpur.wiremock.latency;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.request;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+
+/**
+ * Turns a {@link LatencyRecording} back into WireMock stubs: each recorded response is served for its exact url,
+ * delayed by a sample drawn from the lognormal distribution fitted for its endpoint.
+ */
+public class LatencyReplayer {
+
+    private final WireMockServer wireMockServer;
+
+    public LatencyReplayer(WireMockServer wireMockServer) {
+        this.wireMockServer = wireMockServer;
+    }
+
+    public void replay(LatencyRecording recording) {
+        for (RecordedResponse recordedResponse : recording.getResponses()) {
+            ResponseDefinitionBuilder response = aResponse()
+                .withStatus(recordedResponse.getStatus())
+                .withBody(recordedResponse.getBody());
+            if (recordedResponse.getContentType() != null) {
+                response.withHeader("Content-Type", recordedResponse.getContentType());
+            }
+            EndpointLatencyProfile profile = recording.profileFor(recordedResponse.getEndpoint());
+            if (profile != null && profile.getMedianMillis() > 0) {
+                response.withLogNormalRandomDelay(profile.getMedianMillis(), profile.getSigma());
+            }
+            wireMockServer.stubFor(request(recordedResponse.getMethod(), urlEqualTo(recordedResponse.getUrl()))
+                .willReturn(response));
+        }
+    }
+}
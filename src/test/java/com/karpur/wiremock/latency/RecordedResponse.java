@@ -0,0 +1,74 @@
+package com.karpur.wiremock.latency;
+
+/**
+ * A real response captured while recording, keyed by the exact request method and url.
+ */
+public class RecordedResponse {
+
+    private String method;
+    private String url;
+    private String endpoint;
+    private int status;
+    private String contentType;
+    private String body;
+
+    public RecordedResponse() {
+    }
+
+    public RecordedResponse(String method, String url, String endpoint, int status, String contentType, String body) {
+        this.method = method;
+        this.url = url;
+        this.endpoint = endpoint;
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+}
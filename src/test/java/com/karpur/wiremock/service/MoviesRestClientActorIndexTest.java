@@ -0,0 +1,213 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.index.ActorDictionary;
+import com.karpur.wiremock.index.ActorIndex;
+import com.karpur.wiremock.sync.MoviesCatalogSync;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientActorIndexTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    MoviesRestClient moviesRestClient;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+        moviesRestClient = new MoviesRestClient(webClient);
+
+        stubFor(get(urlPathEqualTo("/movieservice/v1/allMovies"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+    }
+
+    @Test
+    void findMoviesByActor() {
+        //given
+        ActorIndex actorIndex = ActorIndex.of(moviesRestClient.retrieveAllMovies());
+
+        //when
+        List<Movie> movieList = actorIndex.findMoviesByActor("Christian Bale");
+
+        //then
+        assertEquals(3, movieList.size());
+        assertEquals("Batman Begins", movieList.get(0).getName());
+        assertArrayEquals(new int[]{4, 5, 6, 7}, actorIndex.findMovieIdsByActor("Chris Evans"));
+        assertEquals(10, actorIndex.getMovieCount());
+    }
+
+    @Test
+    void findMoviesByActor_normalizedNames() {
+        //given
+        ActorIndex actorIndex = ActorIndex.of(moviesRestClient.retrieveAllMovies());
+
+        //then
+        assertArrayEquals(new int[]{2, 3}, actorIndex.findMovieIdsByActor("  heath   LEDGER "));
+        assertEquals(0, actorIndex.findMoviesByActor("Tom Hardy").size());
+        assertEquals(0, actorIndex.findMoviesByActor(" ").size());
+    }
+
+    @Test
+    void findMoviesByActors_intersection() {
+        //given
+        ActorIndex actorIndex = ActorIndex.of(moviesRestClient.retrieveAllMovies());
+
+        //when
+        List<Movie> movieList = actorIndex.findMoviesByActors("Christian Bale", "Michael Caine");
+
+        //then
+        assertEquals(2, movieList.size());
+        assertEquals(0, actorIndex.findMoviesByActors("Christian Bale", "Chris Evans").size());
+    }
+
+    @Test
+    void actorDictionary_internsEachActorOnce() {
+        //given
+        ActorDictionary dictionary = new ActorDictionary();
+
+        //when
+        int[] first = dictionary.parseCast("Christian Bale, Katie Holmes , Liam Neeson");
+        int[] second = dictionary.parseCast("christian bale,Liam  Neeson, Christian Bale");
+
+        //then
+        assertEquals(3, dictionary.size());
+        assertArrayEquals(new int[]{first[0], first[2]}, second);
+        assertEquals("Katie Holmes", dictionary.nameOf(first[1]));
+        assertSame(dictionary.nameOf(second[0]), dictionary.nameOf(first[0]));
+    }
+
+    @Test
+    void catalogSync_findMoviesByActor() {
+        //given
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movieChanges"))
+            .withQueryParam("since", absent())
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBody("{\"changed\": [], \"deleted\": [], \"cursor\": \"c1\", \"hasMore\": false}")));
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movieChanges"))
+            .withQueryParam("since", equalTo("c1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBody("{\"changed\": [{\"movie_id\": 11, \"name\": \"The Prestige\", \"cast\": \"Christian Bale, Hugh Jackman\"}], "
+                    + "\"deleted\": [1], \"cursor\": \"c2\", \"hasMore\": false}")));
+        MoviesCatalogSync catalogSync = new MoviesCatalogSync(moviesRestClient);
+        catalogSync.sync();
+        ActorIndex beforeDelta = catalogSync.getActorIndex();
+
+        //when
+        catalogSync.sync();
+        List<String> names = catalogSync.findMoviesByActor("Christian Bale").stream()
+            .map(Movie::getName)
+            .collect(Collectors.toList());
+
+        //then
+        assertSame(beforeDelta, catalogSync.getActorIndex());
+        assertEquals(3, names.size());
+        assertFalse(names.contains("Batman Begins"));
+        assertTrue(names.contains("The Prestige"));
+        assertEquals(-1, beforeDelta.getDictionary().idOf("Katie Holmes"));
+    }
+
+    @Test
+    void update_castChange() {
+        //given
+        ActorIndex actorIndex = ActorIndex.of(moviesRestClient.retrieveAllMovies());
+        int actors = actorIndex.getActorCount();
+
+        //when
+        actorIndex.update(new Movie(9L, "The Imitation Game", 2014, "Benedict Cumberbatch, Matthew Goode", null));
+
+        //then
+        assertEquals(0, actorIndex.findMoviesByActor("Keira Knightley").size());
+        assertEquals(-1, actorIndex.getDictionary().idOf("Keira Knightley"));
+        assertArrayEquals(new int[]{9}, actorIndex.findMovieIdsByActor("Matthew Goode"));
+        assertArrayEquals(new int[]{9}, actorIndex.findMovieIdsByActor("Benedict Cumberbatch"));
+        assertEquals(actors, actorIndex.getActorCount());
+
+        //when
+        actorIndex.remove(9L);
+
+        //then
+        assertEquals(0, actorIndex.findMoviesByActor("Benedict Cumberbatch").size());
+        assertEquals(actors - 2, actorIndex.getActorCount());
+        assertEquals(actors - 2, actorIndex.getDictionary().size());
+        assertEquals(9, actorIndex.getMovieCount());
+    }
+
+    @Test
+    void findMoviesByActor_castNotRetained() {
+        //given - the only references to the cast strings are the movies handed to the index
+        List<Movie> movies = new ArrayList<>();
+        movies.add(new Movie(1L, "Batman Begins", 2005, new String("Christian Bale, Katie Holmes , Liam Neeson"), null));
+        movies.add(new Movie(2L, "The Dark Knight", 2008, new String("Christian Bale, Heath  Ledger"), null));
+        WeakReference<String> cast = new WeakReference<>(movies.get(0).getCast());
+        ActorIndex actorIndex = ActorIndex.of(movies);
+
+        //when
+        movies = null;
+        for (int i = 0; i < 10 && cast.get() != null; i++) {
+            System.gc();
+        }
+        List<Movie> movieList = actorIndex.findMoviesByActor("Christian Bale");
+
+        //then
+        assertNull(cast.get());
+        assertEquals("Christian Bale, Katie Holmes, Liam Neeson", movieList.get(0).getCast());
+        assertEquals("Christian Bale, Heath Ledger", movieList.get(1).getCast());
+        assertEquals(4, actorIndex.getDictionary().size());
+    }
+
+    @Test
+    void update_idOutsideIntRangeNotIndexed() {
+        //given
+        List<Movie> movies = new ArrayList<>();
+        movies.add(new Movie(null, "Batman Begins", 2005, "Christian Bale", null));
+        movies.add(new Movie(Integer.MAX_VALUE + 1L, "The Dark Knight", 2008, "Christian Bale", null));
+        movies.add(new Movie(3L, "The Dark Knight Rises", 2012, "Christian Bale", null));
+
+        //when
+        ActorIndex actorIndex = ActorIndex.of(movies);
+        actorIndex.update(new Movie(Long.MAX_VALUE, "The Prestige", 2006, "Christian Bale, Hugh Jackman", null));
+        actorIndex.remove(null);
+        actorIndex.remove(Long.MIN_VALUE);
+
+        //then
+        assertArrayEquals(new int[]{3}, actorIndex.findMovieIdsByActor("Christian Bale"));
+        assertEquals(1, actorIndex.getMovieCount());
+        assertEquals(-1, actorIndex.getDictionary().idOf("Hugh Jackman"));
+    }
+}
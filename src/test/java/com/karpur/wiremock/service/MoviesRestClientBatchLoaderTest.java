@@ -0,0 +1,206 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.karpur.wiremock.batching.MovieBatchLoader;
+import com.karpur.wiremock.batching.MovieBatchLoaderOptions;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.exception.MovieErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientBatchLoaderTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true))
+        .extensions(new ResponseTemplateTransformer(true));
+
+    MoviesRestClient moviesRestClient;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+        moviesRestClient = new MoviesRestClient(webClient);
+
+        stubFor(get(urlPathMatching("/movieservice/v1/movie/[0-9]+"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie-template.json")));
+    }
+
+    @Test
+    void retrieveMoviesByIds() {
+        //given
+        stubMultiIdEndpoint();
+
+        //when
+        List<Movie> movieList = moviesRestClient.retrieveMoviesByIds(Arrays.asList(1, 2, 3));
+
+        //then
+        assertEquals(10, movieList.size());
+        verify(exactly(1), getRequestedFor(urlPathEqualTo("/movieservice/v1/movies"))
+            .withQueryParam("ids", equalTo("1,2,3")));
+    }
+
+    @Test
+    void load_oneMultiIdRequestPerWindow() throws Exception {
+        //given
+        stubMultiIdEndpoint();
+        MovieBatchLoader batchLoader = new MovieBatchLoader(moviesRestClient, MovieBatchLoaderOptions.builder()
+            .window(Duration.ofMillis(50))
+            .build());
+
+        //when
+        CompletableFuture<Movie> first = batchLoader.load(1);
+        CompletableFuture<Movie> second = batchLoader.load(2);
+        CompletableFuture<Movie> duplicate = batchLoader.load(2);
+        CompletableFuture<Movie> third = batchLoader.load(3);
+        CompletableFuture<Movie> missing = batchLoader.load(100);
+
+        //then
+        assertSame(second, duplicate);
+        assertEquals("Batman Begins", first.get(5, TimeUnit.SECONDS).getName());
+        assertEquals("Dark Knight", second.get(5, TimeUnit.SECONDS).getName());
+        assertEquals(Long.valueOf(3), third.get(5, TimeUnit.SECONDS).getMovie_id());
+        ExecutionException ex = assertThrows(ExecutionException.class, missing::get);
+        assertTrue(ex.getCause() instanceof MovieErrorResponse);
+        WebClientResponseException cause = (WebClientResponseException) ex.getCause().getCause();
+        assertEquals(HttpStatus.NOT_FOUND, cause.getStatusCode());
+        verify(exactly(1), getRequestedFor(urlPathEqualTo("/movieservice/v1/movies"))
+            .withQueryParam("ids", equalTo("1,2,3,100")));
+        verify(exactly(0), getRequestedFor(urlPathMatching("/movieservice/v1/movie/[0-9]+")));
+        batchLoader.close();
+    }
+
+    @Test
+    void load_fullBatchSentBeforeWindowEnds() throws Exception {
+        //given
+        stubMultiIdEndpoint();
+        MovieBatchLoader batchLoader = new MovieBatchLoader(moviesRestClient, MovieBatchLoaderOptions.builder()
+            .window(Duration.ofHours(1))
+            .maxBatchSize(2)
+            .build());
+
+        //when
+        CompletableFuture<Movie> first = batchLoader.load(1);
+        CompletableFuture<Movie> second = batchLoader.load(2);
+
+        //then
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        batchLoader.close();
+    }
+
+    @Test
+    void load_fanOutWithoutMultiIdEndpoint() throws Exception {
+        //given
+        MovieBatchLoader batchLoader = new MovieBatchLoader(moviesRestClient, MovieBatchLoaderOptions.builder()
+            .window(Duration.ofMillis(50))
+            .maxConcurrency(2)
+            .build());
+
+        //when
+        CompletableFuture<Movie> first = batchLoader.load(1);
+        CompletableFuture<Movie> second = batchLoader.load(2);
+        CompletableFuture<Movie> third = batchLoader.load(3);
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+        Movie fourth = batchLoader.retrieveMovieById(4);
+        CompletableFuture<Movie> fifth = batchLoader.load(5);
+        CompletableFuture<Movie> sixth = batchLoader.load(6);
+        CompletableFuture.allOf(fifth, sixth).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(Long.valueOf(2), second.get().getMovie_id());
+        assertEquals(Long.valueOf(4), fourth.getMovie_id());
+        verify(exactly(1), getRequestedFor(urlPathEqualTo("/movieservice/v1/movies")));
+        verify(exactly(6), getRequestedFor(urlPathMatching("/movieservice/v1/movie/[0-9]+")));
+        batchLoader.close();
+    }
+
+    @Test
+    void load_notFoundForMissingIdsDoesNotDisableMultiId() throws Exception {
+        //given
+        stubMultiIdEndpoint();
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movies"))
+            .withQueryParam("ids", equalTo("100,101"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("404-movieId.json")));
+        stubFor(get(urlPathMatching("/movieservice/v1/movie/10[01]"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("404-movieId.json")));
+        MovieBatchLoader batchLoader = new MovieBatchLoader(moviesRestClient, MovieBatchLoaderOptions.builder()
+            .window(Duration.ofHours(1))
+            .maxBatchSize(2)
+            .build());
+
+        //when
+        CompletableFuture<Movie> missing = batchLoader.load(100);
+        batchLoader.load(101);
+        assertThrows(ExecutionException.class, () -> missing.get(5, TimeUnit.SECONDS));
+        CompletableFuture<Movie> first = batchLoader.load(1);
+        CompletableFuture<Movie> second = batchLoader.load(2);
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        //then
+        verify(exactly(1), getRequestedFor(urlPathEqualTo("/movieservice/v1/movies"))
+            .withQueryParam("ids", equalTo("1,2")));
+        verify(exactly(0), getRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1")));
+        batchLoader.close();
+    }
+
+    @Test
+    void load_afterClose() {
+        //given
+        MovieBatchLoader batchLoader = new MovieBatchLoader(moviesRestClient);
+        batchLoader.close();
+
+        //when
+        CompletableFuture<Movie> future = batchLoader.load(1);
+
+        //then
+        assertTrue(future.isCompletedExceptionally());
+        assertThrows(MovieErrorResponse.class, () -> batchLoader.retrieveMovieById(1));
+    }
+
+    private void stubMultiIdEndpoint() {
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movies"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+    }
+}
@@ -0,0 +1,241 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.exception.MovieErrorResponse;
+import com.karpur.wiremock.jfr.MovieCallEventOptions;
+import com.karpur.wiremock.jfr.MovieCallEventScope;
+import com.karpur.wiremock.jfr.MovieCallEvents;
+import com.karpur.wiremock.lanes.MovieCallPriority;
+import com.karpur.wiremock.timing.MovieCallListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.karpur.wiremock.constants.MoviesAppConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientCallEventsTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        webClient = WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie.json")));
+    }
+
+    @Test
+    void retrieveMovieById_recordsEvent() throws Exception {
+        //given
+        CapturingCallEvents callEvents = new CapturingCallEvents(MovieCallEventOptions.defaults());
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient, MovieCallListener.NONE, callEvents);
+
+        //when
+        moviesRestClient.retrieveMovieById(1);
+
+        //then
+        assertEquals(1, callEvents.calls.size());
+        MovieCallEventScope call = callEvents.calls.get(0);
+        assertEquals("retrieveMovieById", call.getOperation());
+        assertEquals(MOVIE_BY_ID_PATH_PARAM_V1, call.getEndpoint());
+        assertEquals("id=1", call.getParameters());
+        assertEquals(200, call.getStatus());
+        assertEquals(Files.size(Paths.get("src/test/resources/__files/movie.json")), call.getBytesIn());
+        assertEquals(0, call.getBytesOut());
+        assertEquals(1, call.getItemCount());
+        assertFalse(call.isFailed());
+        assertSame(Thread.currentThread(), call.getCallingThread());
+        assertTrue(call.getDurationNanos() > 0);
+    }
+
+    @Test
+    void withPriority_recordsEachCallOnce() throws Exception {
+        //given
+        CapturingCallEvents callEvents = new CapturingCallEvents(MovieCallEventOptions.defaults());
+        MoviesRestClient batchClient = new MoviesRestClient(webClient, MovieCallListener.NONE, callEvents)
+            .withPriority(MovieCallPriority.BATCH);
+
+        //when
+        batchClient.retrieveMovieById(1);
+
+        //then
+        assertEquals(1, callEvents.calls.size());
+        assertEquals(Files.size(Paths.get("src/test/resources/__files/movie.json")), callEvents.calls.get(0).getBytesIn());
+    }
+
+    @Test
+    void retrieveMovieByName_redactsName() {
+        //given
+        stubFor(get(urlPathEqualTo(MOVIE_BY_NAME_QUERY_PARAM_V1))
+            .withQueryParam("movie_name", equalTo("Avengers"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("avengers.json")));
+        CapturingCallEvents callEvents = new CapturingCallEvents(MovieCallEventOptions.defaults());
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient, MovieCallListener.NONE, callEvents);
+
+        //when
+        moviesRestClient.retrieveMovieByName("Avengers");
+
+        //then
+        MovieCallEventScope call = callEvents.calls.get(0);
+        assertEquals("movie_name=" + MovieCallEvents.REDACTED, call.getParameters());
+        assertEquals(4, call.getItemCount());
+    }
+
+    @Test
+    void addNewMovie_countsBytesOut() {
+        //given
+        stubFor(post(urlPathEqualTo(ADD_MOVIE_V1))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("add-movie.json")));
+        CapturingCallEvents callEvents = new CapturingCallEvents(MovieCallEventOptions.defaults());
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient, MovieCallListener.NONE, callEvents);
+        Movie toyStory = new Movie(null, "Toy Story 4", 2019, "Tom Hanks, Tim Allen", LocalDate.of(2019, 6, 20));
+
+        //when
+        moviesRestClient.addNewMovie(toyStory);
+
+        //then
+        MovieCallEventScope call = callEvents.calls.get(0);
+        int requestBytes = wireMockServer.getAllServeEvents().get(0).getRequest().getBody().length;
+        assertEquals(requestBytes, call.getBytesOut());
+        assertEquals("", call.getParameters());
+    }
+
+    @Test
+    void retrieveMovieById_notFound_recordsFailedEvent() {
+        //given
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/100"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("404-movieId.json")));
+        CapturingCallEvents callEvents = new CapturingCallEvents(MovieCallEventOptions.defaults());
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient, MovieCallListener.NONE, callEvents);
+
+        //when
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+
+        //then
+        MovieCallEventScope call = callEvents.calls.get(0);
+        assertTrue(call.isFailed());
+        assertEquals(404, call.getStatus());
+        assertEquals("id=100", call.getParameters());
+        assertEquals(0, call.getItemCount());
+    }
+
+    @Test
+    void callsBelowThreshold_areNotRecorded() {
+        //given
+        CapturingCallEvents callEvents = new CapturingCallEvents(MovieCallEventOptions.builder()
+            .threshold(Duration.ofSeconds(5))
+            .build());
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient, MovieCallListener.NONE, callEvents);
+
+        //when
+        moviesRestClient.retrieveMovieById(1);
+
+        //then
+        assertEquals(0, callEvents.calls.size());
+    }
+
+    @Test
+    void flightRecording_containsMovieCallEvent() throws Exception {
+        //given
+        MovieCallEvents callEvents = MovieCallEvents.defaults();
+        assumeTrue(callEvents != MovieCallEvents.NONE, "JDK Flight Recorder is not available");
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient, MovieCallListener.NONE, callEvents);
+        // the jdk.jfr API is driven reflectively, the tests are compiled for Java 8 as well
+        Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+        Object recording = recordingClass.getConstructor().newInstance();
+        recordingClass.getMethod("enable", String.class).invoke(recording, "com.karpur.wiremock.MovieCall");
+        Path recordingFile = Files.createTempFile("movie-calls", ".jfr");
+
+        //when
+        assertFalse(callEvents.isRecording());
+        recordingClass.getMethod("start").invoke(recording);
+        boolean recordingStarted = callEvents.isRecording();
+        moviesRestClient.retrieveMovieById(1);
+        recordingClass.getMethod("stop").invoke(recording);
+        recordingClass.getMethod("dump", Path.class).invoke(recording, recordingFile);
+        recordingClass.getMethod("close").invoke(recording);
+        List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+            .getMethod("readAllEvents", Path.class)
+            .invoke(null, recordingFile);
+        Files.delete(recordingFile);
+
+        //then
+        assertTrue(recordingStarted);
+        assertEquals(1, events.size());
+        Object event = events.get(0);
+        Class<?> recordedObject = Class.forName("jdk.jfr.consumer.RecordedObject");
+        assertEquals("retrieveMovieById", recordedObject.getMethod("getString", String.class).invoke(event, "operation"));
+        assertEquals("id=1", recordedObject.getMethod("getString", String.class).invoke(event, "parameters"));
+        assertEquals(200, recordedObject.getMethod("getInt", String.class).invoke(event, "status"));
+        assertEquals(Files.size(Paths.get("src/test/resources/__files/movie.json")), recordedObject.getMethod("getLong", String.class).invoke(event, "bytesIn"));
+    }
+
+    private static class CapturingCallEvents extends MovieCallEvents {
+
+        private final List<MovieCallEventScope> calls = new CopyOnWriteArrayList<>();
+
+        private CapturingCallEvents(MovieCallEventOptions options) {
+            super(options);
+        }
+
+        @Override
+        public boolean isRecording() {
+            return true;
+        }
+
+        @Override
+        protected Object beginEvent() {
+            return null;
+        }
+
+        @Override
+        protected void commitEvent(Object event, MovieCallEventScope call) {
+            calls.add(call);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.karpur.wiremock.dto.MovieChanges;
+import com.karpur.wiremock.exception.MovieChangesCursorExpiredException;
+import com.karpur.wiremock.sync.CatalogSyncResult;
+import com.karpur.wiremock.sync.MoviesCatalogSync;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientDeltaSyncTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    MoviesRestClient moviesRestClient;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+        moviesRestClient = new MoviesRestClient(webClient);
+
+        stubFor(get(urlPathEqualTo("/movieservice/v1/allMovies"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movieChanges"))
+            .withQueryParam("since", absent())
+            .willReturn(changes("[]", "[]", "c1", false)));
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movieChanges"))
+            .withQueryParam("since", equalTo("c1"))
+            .willReturn(changes("[{\"movie_id\": 1, \"name\": \"Batman Begins\", \"year\": 2005, \"cast\": \"Christian Bale\", \"release_date\": \"2005-06-15\"}]",
+                "[2]", "c2", true)));
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movieChanges"))
+            .withQueryParam("since", equalTo("c2"))
+            .willReturn(changes("[{\"movie_id\": 11, \"name\": \"Tenet\", \"year\": 2020, \"cast\": \"John David Washington\", \"release_date\": \"2020-08-26\"}]",
+                "[]", "c3", false)));
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movieChanges"))
+            .withQueryParam("since", equalTo("expired"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.GONE.value())));
+    }
+
+    @Test
+    void retrieveMovieChanges() {
+        //when
+        MovieChanges changes = moviesRestClient.retrieveMovieChanges("c1");
+
+        //then
+        assertEquals(1, changes.getChanged().size());
+        assertEquals(Long.valueOf(2), changes.getDeleted().get(0));
+        assertEquals("c2", changes.getCursor());
+        assertTrue(changes.isHasMore());
+    }
+
+    @Test
+    void retrieveMovieChanges_cursorExpired() {
+        //then
+        assertThrows(MovieChangesCursorExpiredException.class, () -> moviesRestClient.retrieveMovieChanges("expired"));
+    }
+
+    @Test
+    void sync_firstSyncIsFull() {
+        //given
+        MoviesCatalogSync catalogSync = new MoviesCatalogSync(moviesRestClient);
+
+        //when
+        CatalogSyncResult result = catalogSync.sync();
+
+        //then
+        assertTrue(result.isFullResync());
+        assertEquals(10, catalogSync.size());
+        assertEquals("c1", catalogSync.getCursor());
+    }
+
+    @Test
+    void sync_appliesDeltaPages() {
+        //given
+        MoviesCatalogSync catalogSync = new MoviesCatalogSync(moviesRestClient);
+        catalogSync.sync();
+
+        //when
+        CatalogSyncResult result = catalogSync.sync();
+
+        //then
+        assertFalse(result.isFullResync());
+        assertEquals(2, result.getPages());
+        assertEquals(2, result.getChanged());
+        assertEquals(1, result.getDeleted());
+        assertEquals(10, catalogSync.size());
+        assertEquals("Christian Bale", catalogSync.getMovie(1L).getCast());
+        assertNull(catalogSync.getMovie(2L));
+        assertEquals("Tenet", catalogSync.getMovie(11L).getName());
+        assertEquals("c3", catalogSync.getCursor());
+        verify(exactly(1), getRequestedFor(urlPathEqualTo("/movieservice/v1/allMovies")));
+    }
+
+    @Test
+    void sync_cursorExpiredFallsBackToFullResync() {
+        //given
+        MoviesCatalogSync catalogSync = new MoviesCatalogSync(moviesRestClient);
+        catalogSync.sync();
+        catalogSync.sync();
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movieChanges"))
+            .withQueryParam("since", equalTo("c3"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.GONE.value())));
+
+        //when
+        CatalogSyncResult result = catalogSync.sync();
+
+        //then
+        assertTrue(result.isFullResync());
+        assertEquals(10, catalogSync.size());
+        assertNull(catalogSync.getMovie(11L));
+        assertEquals("c1", catalogSync.getCursor());
+        verify(exactly(2), getRequestedFor(urlPathEqualTo("/movieservice/v1/allMovies")));
+    }
+
+    private static ResponseDefinitionBuilder changes(String changed, String deleted, String cursor, boolean hasMore) {
+        return WireMock.aResponse()
+            .withStatus(HttpStatus.OK.value())
+            .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .withBody(String.format("{\"changed\": %s, \"deleted\": %s, \"cursor\": \"%s\", \"hasMore\": %s}",
+                changed, deleted, cursor, hasMore));
+    }
+}
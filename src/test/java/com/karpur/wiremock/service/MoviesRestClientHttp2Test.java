@@ -0,0 +1,222 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.exception.MovieErrorResponse;
+import com.karpur.wiremock.transport.Http2ClientHttpConnector;
+import com.karpur.wiremock.transport.Http2TransportOptions;
+import org.eclipse.jetty.http2.ErrorCode;
+import org.eclipse.jetty.http2.api.Stream;
+import org.eclipse.jetty.http2.api.server.ServerSessionListener;
+import org.eclipse.jetty.http2.frames.HeadersFrame;
+import org.eclipse.jetty.http2.frames.ResetFrame;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.http2.server.RawHTTP2ServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.Callback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientHttp2Test {
+
+    //WireMock only speaks HTTP/1.1, which makes it the stand-in for a server without HTTP/2 support
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    Server http2Server;
+    ServerConnector http2Connector;
+    List<String> protocols = new CopyOnWriteArrayList<>();
+    Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    AtomicInteger posts = new AtomicInteger();
+    Http2ClientHttpConnector connector;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        byte[] movieJson = Files.readAllBytes(Paths.get("src/test/resources/__files/movie.json"));
+        http2Server = new Server();
+        HttpConfiguration httpConfiguration = new HttpConfiguration();
+        http2Connector = new ServerConnector(http2Server, new HttpConnectionFactory(httpConfiguration),
+            new HTTP2CServerConnectionFactory(httpConfiguration));
+        http2Server.addConnector(http2Connector);
+        http2Server.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+                protocols.add(request.getProtocol());
+                clientPorts.add(request.getRemotePort());
+                if ("POST".equals(request.getMethod())) {
+                    // the request was read, then the stream goes away before any response
+                    posts.incrementAndGet();
+                    baseRequest.setHandled(true);
+                    baseRequest.getHttpChannel().abort(new IOException("reset after the request was read"));
+                    return;
+                }
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getOutputStream().write(movieJson);
+                baseRequest.setHandled(true);
+            }
+        });
+        http2Server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connector.close();
+        http2Server.stop();
+    }
+
+    @Test
+    void retrieveMovieById_multiplexedOverH2c() {
+        //given
+        connector = new Http2ClientHttpConnector(Http2TransportOptions.builder()
+            .maxConnections(1)
+            .maxConcurrentStreams(50)
+            .build());
+        MoviesRestClient moviesRestClient = moviesRestClient(http2Connector.getLocalPort());
+
+        //when - 20 calls in flight at once
+        List<Movie> movies = Flux.range(0, 20)
+            .flatMap(i -> Mono.fromCallable(() -> moviesRestClient.retrieveMovieById(1))
+                .subscribeOn(Schedulers.elastic()), 20)
+            .collectList()
+            .block();
+
+        //then
+        assertEquals(20, movies.size());
+        assertEquals("Batman Begins", movies.get(0).getName());
+        assertEquals(20, protocols.size());
+        assertTrue(protocols.stream().allMatch("HTTP/2.0"::equals));
+        assertEquals(1, clientPorts.size());
+        assertFalse(connector.isHttp11Only());
+    }
+
+    @Test
+    void retrieveMovieById_fallsBackToHttp11() {
+        //given
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie.json")));
+        connector = new Http2ClientHttpConnector(Http2TransportOptions.defaults());
+        MoviesRestClient moviesRestClient = moviesRestClient(wireMockServer.port());
+
+        //when
+        Movie first = moviesRestClient.retrieveMovieById(1);
+        Movie second = moviesRestClient.retrieveMovieById(1);
+
+        //then
+        assertEquals("Batman Begins", first.getName());
+        assertEquals("Batman Begins", second.getName());
+        assertTrue(connector.isHttp11Only());
+    }
+
+    @Test
+    void addNewMovie_failedMidRequest_notReplayedOverHttp11() {
+        //given
+        connector = new Http2ClientHttpConnector(Http2TransportOptions.defaults());
+        MoviesRestClient moviesRestClient = moviesRestClient(http2Connector.getLocalPort());
+        Movie toyStory = new Movie(null, "Toy Story 4", 2019, "Tom Hanks, Tim Allen", LocalDate.of(2019, 6, 20));
+
+        //when
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.addNewMovie(toyStory));
+
+        //then
+        assertEquals(1, posts.get());
+        assertEquals("HTTP/2.0", protocols.get(0));
+        assertFalse(connector.isHttp11Only());
+    }
+
+    @Test
+    void retrieveMovieById_refusedStream_replayedOverHttp11() throws Exception {
+        //given - an HTTP/2 server refusing every stream, and an HTTP/1.1 connector that lands on WireMock
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie.json")));
+        ServerConnector refusingConnector = new ServerConnector(http2Server,
+            new RawHTTP2ServerConnectionFactory(new HttpConfiguration(), new ServerSessionListener.Adapter() {
+                @Override
+                public Stream.Listener onNewStream(Stream stream, HeadersFrame frame) {
+                    stream.reset(new ResetFrame(stream.getId(), ErrorCode.REFUSED_STREAM_ERROR.code), Callback.NOOP);
+                    return null;
+                }
+            }));
+        http2Server.addConnector(refusingConnector);
+        refusingConnector.start();
+        ReactorClientHttpConnector toWireMock = new ReactorClientHttpConnector();
+        connector = new Http2ClientHttpConnector(Http2TransportOptions.defaults(), (method, uri, requestCallback) ->
+            toWireMock.connect(method, UriComponentsBuilder.fromUri(uri).port(wireMockServer.port()).build().toUri(),
+                requestCallback));
+        MoviesRestClient moviesRestClient = moviesRestClient(refusingConnector.getLocalPort());
+
+        //when
+        Movie movie = moviesRestClient.retrieveMovieById(1);
+
+        //then - replayed, but a refused stream says nothing about HTTP/2 support
+        assertEquals("Batman Begins", movie.getName());
+        assertFalse(connector.isHttp11Only());
+        verify(exactly(1), getRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1")));
+    }
+
+    private MoviesRestClient moviesRestClient(int port) {
+        WebClient webClient = WebClient.builder()
+            .clientConnector(connector)
+            .baseUrl(String.format("http://localhost:%s", port))
+            .build();
+        return new MoviesRestClient(webClient);
+    }
+}
@@ -0,0 +1,200 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.latency.EndpointLatencyProfile;
+import com.karpur.wiremock.latency.LatencyRecorder;
+import com.karpur.wiremock.latency.LatencyRecording;
+import com.karpur.wiremock.latency.LatencyReplayer;
+import com.karpur.wiremock.latency.RecordedResponse;
+import com.karpur.wiremock.timing.LatencyHistogram;
+import com.karpur.wiremock.timing.MovieTimingHistograms;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.karpur.wiremock.constants.MoviesAppConstants.GET_ALL_MOVIES_V1;
+import static com.karpur.wiremock.constants.MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientLatencyReplayTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MoviesRestClientLatencyReplayTest.class);
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    //stands in for the real movie service on localhost:8081
+    WireMockServer upstream = new WireMockServer(wireMockConfig().dynamicPort());
+
+    MoviesRestClient moviesRestClient;
+    MovieTimingHistograms histograms;
+
+    @BeforeEach
+    void setUp() {
+        upstream.start();
+        upstream.stubFor(get(urlPathEqualTo(GET_ALL_MOVIES_V1))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withLogNormalRandomDelay(40, 0.3)
+                .withBodyFile("all-movies.json")));
+        upstream.stubFor(get(urlPathMatching("/movieservice/v1/movie/[0-9]+"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withLogNormalRandomDelay(15, 0.3)
+                .withBodyFile("movie.json")));
+
+        histograms = new MovieTimingHistograms();
+        WebClient webClient = WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+        moviesRestClient = new MoviesRestClient(webClient, histograms);
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop();
+    }
+
+    @Test
+    void recordThenReplay(@TempDir Path tempDir) throws Exception {
+        //given - a recording of real responses and latencies
+        LatencyRecorder recorder = new LatencyRecorder(wireMockServer, upstream.baseUrl());
+        recorder.start();
+        for (int i = 0; i < 20; i++) {
+            moviesRestClient.retrieveAllMovies();
+            moviesRestClient.retrieveMovieById(1);
+        }
+        File recordingFile = tempDir.resolve("movies-latency.json").toFile();
+        recorder.stop().save(recordingFile);
+
+        LatencyRecording recording = LatencyRecording.load(recordingFile);
+        EndpointLatencyProfile allMovies = recording.profileFor("GET " + GET_ALL_MOVIES_V1);
+        EndpointLatencyProfile movieById = recording.profileFor("GET " + MOVIE_BY_ID_PATH_PARAM_V1);
+        LOGGER.info("Fitted all movies median {}ms sigma {}", allMovies.getMedianMillis(), allMovies.getSigma());
+        assertEquals(20, allMovies.getSamplesMillis().size());
+        // loose bounds : 20 samples only, and a loaded machine adds latency on top of the stub delays
+        assertTrue(allMovies.getMedianMillis() > 25 && allMovies.getMedianMillis() < 150);
+        assertTrue(movieById.getMedianMillis() < allMovies.getMedianMillis());
+        assertTrue(allMovies.getSigma() > 0);
+        assertEquals(2, recording.getResponses().size());
+
+        //when - replayed offline
+        wireMockServer.resetAll();
+        new LatencyReplayer(wireMockServer).replay(recording);
+        histograms = new MovieTimingHistograms();
+        moviesRestClient = new MoviesRestClient(WebClient.create(wireMockServer.baseUrl()), histograms);
+        List<Movie> movieList = null;
+        for (int i = 0; i < 20; i++) {
+            movieList = moviesRestClient.retrieveAllMovies();
+        }
+
+        //then
+        LatencyHistogram replayed = histograms.forOperation("retrieveAllMovies").getTotal();
+        LOGGER.info("Replayed retrieveAllMovies : {}", replayed);
+        assertTrue(movieList.size() > 0);
+        assertTrue(replayed.getValueAtPercentile(50) > 20_000_000L);
+    }
+
+    @Test
+    void fit_knownSamples() {
+        //given - e^mu is 40 and the logs sit at mu - ln 4, mu, mu + ln 4
+        EndpointLatencyProfile profile = new EndpointLatencyProfile("GET " + GET_ALL_MOVIES_V1);
+        profile.setSamplesMillis(Arrays.asList(10, 40, 160));
+
+        //when
+        profile.fit();
+
+        //then
+        assertEquals(40, profile.getMedianMillis(), 0.001);
+        assertEquals(Math.log(4) * Math.sqrt(2.0 / 3), profile.getSigma(), 0.001);
+    }
+
+    @Test
+    void fit_lognormalSamples() {
+        //given
+        EndpointLatencyProfile profile = new EndpointLatencyProfile("GET " + GET_ALL_MOVIES_V1);
+        profile.setSamplesMillis(lognormalSamples(40, 0.5, 5000));
+
+        //when
+        profile.fit();
+
+        //then
+        assertEquals(40, profile.getMedianMillis(), 2);
+        assertEquals(0.5, profile.getSigma(), 0.03);
+    }
+
+    @Test
+    void replay_percentilesFollowProfile() throws Exception {
+        //given - a recording with a known profile, median 40ms and sigma 0.5 : p50 40ms, p90 76ms
+        EndpointLatencyProfile profile = new EndpointLatencyProfile("GET " + MOVIE_BY_ID_PATH_PARAM_V1);
+        profile.setSamplesMillis(lognormalSamples(40, 0.5, 1000));
+        profile.fit();
+        LatencyRecording recording = new LatencyRecording();
+        recording.getProfiles().put(profile.getEndpoint(), profile);
+        String body = new String(Files.readAllBytes(Paths.get("src/test/resources/__files/movie.json")),
+            StandardCharsets.UTF_8);
+        recording.getResponses().add(new RecordedResponse("GET", "/movieservice/v1/movie/1", profile.getEndpoint(),
+            HttpStatus.OK.value(), MediaType.APPLICATION_JSON_VALUE, body));
+
+        //when
+        new LatencyReplayer(wireMockServer).replay(recording);
+        for (int i = 0; i < 100; i++) {
+            moviesRestClient.retrieveMovieById(1);
+        }
+
+        //then
+        LatencyHistogram replayed = histograms.forOperation("retrieveMovieById").getTotal();
+        LOGGER.info("Replayed retrieveMovieById : {}", replayed);
+        double p50Millis = replayed.getValueAtPercentile(50) / 1_000_000.0;
+        double p90Millis = replayed.getValueAtPercentile(90) / 1_000_000.0;
+        double expectedP50 = profile.getMedianMillis();
+        double expectedP90 = profile.getMedianMillis() * Math.exp(1.2816 * profile.getSigma());
+        // 100 draws put the sample percentiles within ~15% of the profile's; the client only adds time on top,
+        // so the upper bound on the median leaves room for a loaded machine
+        assertTrue(p50Millis > expectedP50 * 0.7 && p50Millis < expectedP50 * 2 + 25);
+        assertTrue(p90Millis > expectedP90 * 0.7);
+        assertTrue(p90Millis > p50Millis);
+    }
+
+    private static List<Integer> lognormalSamples(double medianMillis, double sigma, int count) {
+        Random random = new Random(42);
+        Integer[] samples = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = (int) Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+        }
+        return Arrays.asList(samples);
+    }
+}
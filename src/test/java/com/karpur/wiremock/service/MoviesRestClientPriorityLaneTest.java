@@ -0,0 +1,244 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.lanes.LaneMetrics;
+import com.karpur.wiremock.lanes.MovieCallPriority;
+import com.karpur.wiremock.lanes.PriorityLaneFilter;
+import com.karpur.wiremock.lanes.PriorityLaneOptions;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientPriorityLaneTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    @Test
+    void batchFloodDoesNotBlockInteractive() throws Exception {
+        //given
+        stubAllMovies(300);
+        stubMovieById(0);
+        PriorityLaneFilter laneFilter = new PriorityLaneFilter(PriorityLaneOptions.builder()
+            .maxInFlight(2)
+            .maxBatchInFlight(1)
+            .build());
+        MoviesRestClient moviesRestClient = moviesRestClient(laneFilter);
+        MoviesRestClient batchClient = moviesRestClient.withPriority(MovieCallPriority.BATCH);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        // the first call pays for the client start-up, which is not what is measured here
+        moviesRestClient.retrieveMovieById(1);
+
+        //when
+        List<CompletableFuture<?>> batchCalls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            batchCalls.add(CompletableFuture.runAsync(batchClient::retrieveAllMovies, executor));
+        }
+        Thread.sleep(100);
+        long start = System.nanoTime();
+        moviesRestClient.retrieveMovieById(1);
+        long interactiveMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        CompletableFuture.allOf(batchCalls.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        LaneMetrics interactive = laneFilter.getMetrics(MovieCallPriority.INTERACTIVE);
+        LaneMetrics batch = laneFilter.getMetrics(MovieCallPriority.BATCH);
+        assertTrue(interactiveMillis < 300, "interactive call took " + interactiveMillis + " ms");
+        assertEquals(2, interactive.getAdmitted());
+        assertTrue(interactive.getWaitTime().getMaxNanos() < TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(4, batch.getAdmitted());
+        assertEquals(3, batch.getMaxQueueDepth());
+        assertTrue(batch.getWaitTime().getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(800));
+        assertEquals(0, batch.getQueueDepth());
+        assertEquals(0, batch.getInFlight());
+    }
+
+    @Test
+    void freedSlotsGoToLanesByWeight() throws Exception {
+        //given
+        stubAllMovies(0);
+        stubMovieById(0);
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/999"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie.json")
+                .withFixedDelay(500)));
+        PriorityLaneFilter laneFilter = new PriorityLaneFilter(PriorityLaneOptions.builder()
+            .maxInFlight(1)
+            .interactiveWeight(4)
+            .build());
+        MoviesRestClient moviesRestClient = moviesRestClient(laneFilter);
+        MoviesRestClient batchClient = moviesRestClient.withPriority(MovieCallPriority.BATCH);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //when
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        calls.add(CompletableFuture.runAsync(() -> moviesRestClient.retrieveMovieById(999), executor));
+        Thread.sleep(100);
+        for (int i = 0; i < 2; i++) {
+            calls.add(CompletableFuture.runAsync(batchClient::retrieveAllMovies, executor));
+            Thread.sleep(20);
+        }
+        for (int i = 1; i <= 5; i++) {
+            int movieId = i;
+            calls.add(CompletableFuture.runAsync(() -> moviesRestClient.retrieveMovieById(movieId), executor));
+            Thread.sleep(20);
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        List<ServeEvent> serveEvents = new ArrayList<>(wireMockServer.getAllServeEvents());
+        Collections.reverse(serveEvents);
+        List<String> order = serveEvents.stream()
+            .map(serveEvent -> serveEvent.getRequest().getUrl().replace("/movieservice/v1/", ""))
+            .collect(Collectors.toList());
+        assertEquals(Arrays.asList("movie/999", "movie/1", "movie/2", "movie/3", "movie/4", "allMovies", "movie/5",
+            "allMovies"), order);
+    }
+
+    @Test
+    void unreadBodyReleasesSlotAfterTimeout() throws Exception {
+        //given
+        stubMovieById(0);
+        PriorityLaneFilter laneFilter = new PriorityLaneFilter(PriorityLaneOptions.builder()
+            .maxInFlight(1)
+            .slotTimeout(Duration.ofMillis(200))
+            .build());
+        WebClient webClient = webClient(laneFilter);
+        MoviesRestClient moviesRestClient = new MoviesRestClient(webClient);
+
+        //when
+        ClientResponse unread = webClient.get().uri("/movieservice/v1/movie/1").exchange().block();
+        CompletableFuture<Movie> next = CompletableFuture.supplyAsync(() -> moviesRestClient.retrieveMovieById(2));
+
+        //then
+        assertNotNull(unread);
+        assertNotNull(next.get(5, TimeUnit.SECONDS));
+        LaneMetrics interactive = laneFilter.getMetrics(MovieCallPriority.INTERACTIVE);
+        assertEquals(1, interactive.getExpired());
+        assertEquals(0, interactive.getInFlight());
+    }
+
+    @Test
+    void streamingBodyKeepsSlotPastTimeout() throws Exception {
+        //given - a body streamed over 1.5s in 10 flushed parts, WireMock's dribble delay buffers its chunks
+        byte[] allMovies = Files.readAllBytes(Paths.get("src/test/resources/__files/all-movies.json"));
+        Server streamingServer = new Server(0);
+        streamingServer.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                int part = allMovies.length / 10 + 1;
+                for (int from = 0; from < allMovies.length; from += part) {
+                    response.getOutputStream().write(allMovies, from, Math.min(part, allMovies.length - from));
+                    response.flushBuffer();
+                    try {
+                        Thread.sleep(150);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                baseRequest.setHandled(true);
+            }
+        });
+        streamingServer.start();
+        PriorityLaneFilter laneFilter = new PriorityLaneFilter(PriorityLaneOptions.builder()
+            .maxBatchInFlight(1)
+            .slotTimeout(Duration.ofMillis(400))
+            .build());
+        MoviesRestClient batchClient = new MoviesRestClient(WebClient.builder()
+            .baseUrl(streamingServer.getURI().toString())
+            .filter(laneFilter)
+            .build()).withPriority(MovieCallPriority.BATCH);
+
+        //when
+        CompletableFuture<List<Movie>> first = CompletableFuture.supplyAsync(batchClient::retrieveAllMovies);
+        CompletableFuture<List<Movie>> second = CompletableFuture.supplyAsync(batchClient::retrieveAllMovies);
+
+        //then - the second call only got a slot once the first body was done
+        try {
+            assertEquals(10, first.get(10, TimeUnit.SECONDS).size());
+            assertEquals(10, second.get(10, TimeUnit.SECONDS).size());
+        } finally {
+            streamingServer.stop();
+        }
+        LaneMetrics batch = laneFilter.getMetrics(MovieCallPriority.BATCH);
+        assertEquals(0, batch.getExpired());
+        assertTrue(batch.getWaitTime().getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(1200));
+        assertEquals(0, batch.getInFlight());
+    }
+
+    private MoviesRestClient moviesRestClient(PriorityLaneFilter laneFilter) {
+        return new MoviesRestClient(webClient(laneFilter));
+    }
+
+    private WebClient webClient(PriorityLaneFilter laneFilter) {
+        return WebClient.builder()
+            .baseUrl(String.format("http://localhost:%s", wireMockServer.port()))
+            .filter(laneFilter)
+            .build();
+    }
+
+    private void stubAllMovies(int delayMillis) {
+        stubFor(get(urlPathEqualTo("/movieservice/v1/allMovies"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")
+                .withFixedDelay(delayMillis)));
+    }
+
+    private void stubMovieById(int delayMillis) {
+        stubFor(get(urlPathMatching("/movieservice/v1/movie/[0-9]"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie.json")
+                .withFixedDelay(delayMillis)));
+    }
+}
@@ -0,0 +1,290 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.karpur.wiremock.cache.CachingMoviesClient;
+import com.karpur.wiremock.cache.MovieCacheMetrics;
+import com.karpur.wiremock.cache.MovieCacheOptions;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.exception.MovieErrorResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientResponseCacheTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    TestClock clock = new TestClock();
+    CachingMoviesClient cachingClient;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+        cachingClient = new CachingMoviesClient(new MoviesRestClient(webClient), MovieCacheOptions.builder()
+            .softTtl(Duration.ofSeconds(30))
+            .hardTtl(Duration.ofMinutes(5))
+            .staleIfError(Duration.ofMinutes(10))
+            .negativeTtl(Duration.ofSeconds(10))
+            .clock(clock)
+            .build());
+
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie.json")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cachingClient.close();
+    }
+
+    @Test
+    void retrieveMovieById_freshEntry() {
+        //when
+        Movie first = cachingClient.retrieveMovieById(1);
+        clock.advance(Duration.ofSeconds(29));
+        Movie second = cachingClient.retrieveMovieById(1);
+
+        //then
+        assertSame(first, second);
+        verify(1, getRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1")));
+        assertEquals(1, cachingClient.getMetrics().getHits());
+        assertEquals(1, cachingClient.getMetrics().getMisses());
+    }
+
+    @Test
+    void retrieveMovieById_staleWhileRevalidate() throws Exception {
+        //given
+        Movie cached = cachingClient.retrieveMovieById(1);
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBody("{\"movie_id\": 1, \"name\": \"Batman Begins (Remastered)\", \"year\": 2005}")
+                .withFixedDelay(300)));
+        clock.advance(Duration.ofSeconds(31));
+
+        //when
+        long start = System.nanoTime();
+        List<Movie> staleReads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            staleReads.add(cachingClient.retrieveMovieById(1));
+        }
+        long staleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        awaitRefreshes(1);
+
+        //then
+        assertTrue(staleMillis < 300, "stale reads took " + staleMillis + " ms");
+        staleReads.forEach(movie -> assertSame(cached, movie));
+        assertEquals("Batman Begins (Remastered)", cachingClient.retrieveMovieById(1).getName());
+        verify(2, getRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1")));
+        assertEquals(5, cachingClient.getMetrics().getStaleHits());
+    }
+
+    @Test
+    void updateMovie_duringRefresh() throws Exception {
+        //given
+        cachingClient.retrieveMovieById(1);
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBody("{\"movie_id\": 1, \"name\": \"Batman Begins\", \"year\": 2005}")
+                .withFixedDelay(300)));
+        stubFor(put(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBody("{\"movie_id\": 1, \"name\": \"Batman Begins (Updated)\", \"year\": 2005}")));
+        clock.advance(Duration.ofSeconds(31));
+
+        //when - the refresh has read the movie before the update, and answers after it
+        cachingClient.retrieveMovieById(1);
+        awaitRequests(getRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1")), 2);
+        cachingClient.updateMovie(1, new Movie(1L, "Batman Begins (Updated)", 2005, null, null));
+        awaitRefreshes(1);
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBody("{\"movie_id\": 1, \"name\": \"Batman Begins (Updated)\", \"year\": 2005}")));
+
+        //then
+        assertEquals("Batman Begins (Updated)", cachingClient.retrieveMovieById(1).getName());
+        verify(3, getRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1")));
+    }
+
+    @Test
+    void retrieveMovieById_serveStaleOnError() {
+        //given
+        Movie cached = cachingClient.retrieveMovieById(1);
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.SERVICE_UNAVAILABLE.value())));
+
+        //when
+        clock.advance(Duration.ofMinutes(6));
+        Movie staleOnError = cachingClient.retrieveMovieById(1);
+        clock.advance(Duration.ofMinutes(10));
+
+        //then
+        assertSame(cached, staleOnError);
+        assertEquals(1, cachingClient.getMetrics().getStaleOnError());
+        assertThrows(MovieErrorResponse.class, () -> cachingClient.retrieveMovieById(1));
+    }
+
+    @Test
+    void retrieveMovieById_negativeCaching() {
+        //given
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/100"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("404-movieId.json")));
+
+        //when
+        for (int i = 0; i < 3; i++) {
+            assertThrows(MovieErrorResponse.class, () -> cachingClient.retrieveMovieById(100));
+        }
+        clock.advance(Duration.ofSeconds(11));
+        assertThrows(MovieErrorResponse.class, () -> cachingClient.retrieveMovieById(100));
+
+        //then
+        verify(2, getRequestedFor(urlPathEqualTo("/movieservice/v1/movie/100")));
+        MovieCacheMetrics metrics = cachingClient.getMetrics();
+        assertEquals(2, metrics.getNegativeHits());
+        assertEquals(2, metrics.getMisses());
+    }
+
+    @Test
+    void retrieveAllMovies_concurrentMissesShareOneCall() throws Exception {
+        //given
+        stubFor(get(urlPathEqualTo("/movieservice/v1/allMovies"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")
+                .withFixedDelay(300)));
+
+        //when
+        List<CompletableFuture<List<Movie>>> reads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            reads.add(CompletableFuture.supplyAsync(cachingClient::retrieveAllMovies));
+        }
+        for (CompletableFuture<List<Movie>> read : reads) {
+            assertEquals(10, read.get(5, TimeUnit.SECONDS).size());
+        }
+
+        //then
+        verify(1, getRequestedFor(urlPathEqualTo("/movieservice/v1/allMovies")));
+        cachingClient.invalidate(1);
+        assertEquals(0, cachingClient.size());
+    }
+
+    @Test
+    void retrieveMovieById_oldestEntryEvicted() {
+        //given
+        stubFor(get(urlPathMatching("/movieservice/v1/movie/[0-9]"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie.json")));
+        CachingMoviesClient smallCache = new CachingMoviesClient(new MoviesRestClient(WebClient.create(
+            String.format("http://localhost:%s", wireMockServer.port()))), MovieCacheOptions.builder()
+            .maxEntries(2)
+            .clock(clock)
+            .build());
+
+        //when
+        for (int movieId = 1; movieId <= 3; movieId++) {
+            smallCache.retrieveMovieById(movieId);
+        }
+        smallCache.retrieveMovieById(3);
+        smallCache.retrieveMovieById(1);
+
+        //then
+        assertEquals(2, smallCache.size());
+        verify(2, getRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1")));
+        verify(1, getRequestedFor(urlPathEqualTo("/movieservice/v1/movie/3")));
+        smallCache.close();
+    }
+
+    private void awaitRequests(RequestPatternBuilder requests, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (findAll(requests).size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitRefreshes(long refreshes) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cachingClient.getMetrics().getRefreshes() < refreshes && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static class TestClock extends Clock {
+
+        private final AtomicLong millis = new AtomicLong(System.currentTimeMillis());
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.exception.MovieErrorResponse;
+import com.karpur.wiremock.exception.MovieResponseTooLargeException;
+import com.karpur.wiremock.limits.ResponseBufferMetrics;
+import com.karpur.wiremock.limits.ResponseSizeLimitFilter;
+import com.karpur.wiremock.limits.ResponseSizeLimits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.karpur.wiremock.constants.MoviesAppConstants.GET_ALL_MOVIES_V1;
+import static com.karpur.wiremock.constants.MoviesAppConstants.MOVIE_BY_ID_PATH_PARAM_V1;
+import static com.karpur.wiremock.constants.MoviesAppConstants.MOVIE_BY_YEAR_QUERY_PARAM_V1;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientResponseLimitsTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    MoviesRestClient moviesRestClient;
+    ResponseBufferMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        ResponseSizeLimitFilter limitFilter = new ResponseSizeLimitFilter(ResponseSizeLimits.builder()
+            .maxBytes(GET_ALL_MOVIES_V1, 512L)
+            .maxBytes(MOVIE_BY_YEAR_QUERY_PARAM_V1, 64 * 1024L)
+            .maxErrorBodyBytes(64)
+            .build());
+        metrics = limitFilter.getMetrics();
+        WebClient webClient = WebClient.builder()
+            .baseUrl(String.format("http://localhost:%s", wireMockServer.port()))
+            .filter(limitFilter)
+            .build();
+        moviesRestClient = new MoviesRestClient(webClient);
+
+        stubFor(get(urlPathEqualTo("/movieservice/v1/allMovies"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movieYear"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("all-movies.json")));
+    }
+
+    @Test
+    void retrieveAllMovies_overLimit() {
+        //when
+        MovieResponseTooLargeException ex = assertThrows(MovieResponseTooLargeException.class,
+            () -> moviesRestClient.retrieveAllMovies());
+
+        //then
+        assertEquals(GET_ALL_MOVIES_V1, ex.getEndpoint());
+        assertEquals(512, ex.getMaxBytes());
+        assertTrue(ex.getBytesRead() > 512);
+        assertEquals(1, metrics.getRejectedResponses());
+        assertEquals(0, metrics.getInFlightBytes());
+    }
+
+    @Test
+    void retrieveMovieByYear_underLimit() {
+        //when
+        List<Movie> movieList = moviesRestClient.retrieveMovieByYear(2012);
+
+        //then
+        assertEquals(10, movieList.size());
+        assertEquals(0, metrics.getRejectedResponses());
+        assertEquals(metrics.getBytesReceived(), metrics.getLargestResponseBytes(MOVIE_BY_YEAR_QUERY_PARAM_V1));
+        assertTrue(metrics.getPeakInFlightBytes() >= metrics.getBytesReceived());
+        assertEquals(0, metrics.getInFlightBytes());
+    }
+
+    @Test
+    void streamAllMovies_notLimited() {
+        //given
+        List<Movie> streamed = Collections.synchronizedList(new ArrayList<>());
+
+        //when
+        long count = moviesRestClient.streamAllMovies(streamed::add);
+
+        //then
+        assertEquals(10, count);
+        assertEquals(10, streamed.size());
+        assertEquals(0, metrics.getRejectedResponses());
+    }
+
+    @Test
+    void retrieveMovieById_errorBodyTruncated() {
+        //given
+        StringBuilder hugeBody = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            hugeBody.append("error ");
+        }
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/100"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withBody(hugeBody.toString())));
+
+        //when
+        MovieErrorResponse ex = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+
+        //then
+        WebClientResponseException cause = (WebClientResponseException) ex.getCause();
+        assertEquals(HttpStatus.NOT_FOUND, cause.getStatusCode());
+        assertEquals(64, cause.getResponseBodyAsByteArray().length);
+        assertEquals(1, metrics.getTruncatedErrorBodies());
+        assertTrue(metrics.getLargestResponseBytes(MOVIE_BY_ID_PATH_PARAM_V1) < hugeBody.length());
+    }
+
+    @Test
+    void retrieveMovieById_nonStandardStatusCode() {
+        //given
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movie/599"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(599)
+                .withBody("Network Connect Timeout Error")));
+
+        //when
+        MovieErrorResponse ex = assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(599));
+
+        //then
+        WebClientResponseException cause = (WebClientResponseException) ex.getCause();
+        assertEquals(599, cause.getRawStatusCode());
+        assertEquals("Network Connect Timeout Error", cause.getResponseBodyAsString());
+    }
+
+    @Test
+    void retrieveMovieByYear_randomDataThenClose() {
+        //given
+        stubFor(get(urlPathEqualTo("/movieservice/v1/movieYear"))
+            .willReturn(WireMock.aResponse()
+                .withFault(Fault.RANDOM_DATA_THEN_CLOSE)));
+
+        //then
+        assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieByYear(2012));
+        assertEquals(0, metrics.getInFlightBytes());
+    }
+}
@@ -0,0 +1,106 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.exception.MovieErrorResponse;
+import com.karpur.wiremock.timing.MovieCallTimingSupport;
+import com.karpur.wiremock.timing.MovieCallTimings;
+import com.karpur.wiremock.timing.MovieTimingHistograms;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.karpur.wiremock.constants.MoviesAppConstants.GET_ALL_MOVIES_V1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientTimingTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    MoviesRestClient moviesRestClient;
+    MovieTimingHistograms histograms;
+    List<MovieCallTimings> calls;
+
+    @BeforeEach
+    void setUp() {
+        String baseUrl = String.format("http://localhost:%s", wireMockServer.port());
+        WebClient webClient = MovieCallTimingSupport.webClientBuilder(HttpClient.create())
+            .baseUrl(baseUrl)
+            .build();
+        histograms = new MovieTimingHistograms();
+        calls = new CopyOnWriteArrayList<>();
+        moviesRestClient = new MoviesRestClient(webClient, histograms.andThen(calls::add));
+    }
+
+    @Test
+    void retrieveAllMovies_phaseTimings() {
+        //given
+        stubFor(get(urlPathEqualTo(GET_ALL_MOVIES_V1))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withFixedDelay(50)
+                .withBodyFile("all-movies.json")));
+
+        //when
+        List<Movie> movieList = moviesRestClient.retrieveAllMovies();
+        moviesRestClient.retrieveAllMovies();
+
+        //then
+        assertTrue(movieList.size() > 0);
+        assertEquals(2, calls.size());
+        MovieCallTimings first = calls.get(0);
+        assertEquals(GET_ALL_MOVIES_V1, first.getUriTemplate());
+        assertEquals(200, first.getStatus());
+        assertTrue(first.isNewConnection());
+        assertTrue(first.getTimeToFirstByteNanos() >= 50_000_000L);
+        assertTrue(first.getDecodeNanos() > 0);
+        assertTrue(first.getTotalNanos() >= first.getTimeToFirstByteNanos());
+        assertTrue(calls.get(1).getBodyTransferNanos() > 0);
+        assertEquals(2, histograms.forOperation("retrieveAllMovies").getTotal().getCount());
+    }
+
+    @Test
+    void retrieveMovieById_failureIsTimed() {
+        //given
+        stubFor(get(urlPathMatching("/movieservice/v1/movie/[0-9]+"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("404-movieId.json")));
+
+        //when
+        Assertions.assertThrows(MovieErrorResponse.class, () -> moviesRestClient.retrieveMovieById(100));
+
+        //then
+        assertEquals(1, calls.size());
+        assertEquals(404, calls.get(0).getStatus());
+        assertTrue(calls.get(0).isFailed());
+        assertEquals(1, histograms.forOperation("retrieveMovieById").getFailures().get());
+    }
+}
@@ -0,0 +1,127 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.karpur.wiremock.warmup.WarmUpOptions;
+import com.karpur.wiremock.warmup.WarmUpReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientWarmUpTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    MoviesRestClient moviesRestClient;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+        moviesRestClient = new MoviesRestClient(webClient);
+
+        stubFor(get(urlPathMatching("/movieservice/v1/movie/[0-9]+"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie.json")));
+    }
+
+    @Test
+    void warmUp() {
+        //when
+        WarmUpReport report = moviesRestClient.warmUp(WarmUpOptions.builder()
+            .connections(3)
+            .decodeIterations(10)
+            .build());
+
+        //then
+        assertEquals(3, report.getConnectionsOpened());
+        assertEquals(10, report.getDecodeIterations());
+        assertTrue(report.getDurationMillis() >= report.getCodecPrimingMillis());
+        verify(exactly(3), getRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1")));
+    }
+
+    @Test
+    void warmUp_serverDown() {
+        //given
+        wireMockServer.stop();
+
+        //when
+        WarmUpReport report = moviesRestClient.warmUp();
+
+        //then
+        assertEquals(0, report.getConnectionsOpened());
+    }
+
+    @Test
+    void warmUp_timeout() {
+        //given
+        stubFor(get(urlPathMatching("/movieservice/v1/movie/[0-9]+"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withFixedDelay(5000)));
+
+        //when
+        WarmUpReport report = moviesRestClient.warmUp(WarmUpOptions.builder()
+            .connections(2)
+            .decodeIterations(3)
+            .timeout(Duration.ofMillis(500))
+            .build());
+
+        //then
+        assertTrue(report.isTimedOut());
+        assertEquals(0, report.getConnectionsOpened());
+        assertEquals(3, report.getDecodeIterations());
+        assertTrue(report.getDurationMillis() < 5000);
+    }
+
+    @Test
+    void warmUp_codecsPrimedWithoutFilters() {
+        //given
+        AtomicInteger filtered = new AtomicInteger();
+        WebClient webClient = WebClient.builder()
+            .baseUrl(String.format("http://localhost:%s", wireMockServer.port()))
+            .filter((request, next) -> {
+                filtered.incrementAndGet();
+                return next.exchange(request);
+            })
+            .build();
+        moviesRestClient = new MoviesRestClient(webClient);
+
+        //when
+        WarmUpReport report = moviesRestClient.warmUp(WarmUpOptions.builder()
+            .connections(2)
+            .decodeIterations(5)
+            .build());
+
+        //then - only the connection requests went through the filter
+        assertEquals(5, report.getDecodeIterations());
+        assertEquals(2, filtered.get());
+        assertFalse(report.isTimedOut());
+    }
+}
@@ -0,0 +1,224 @@
+package com.karpur.wiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.karpur.wiremock.dto.Movie;
+import com.karpur.wiremock.exception.MovieErrorResponse;
+import com.karpur.wiremock.writebehind.WriteBehindMoviesClient;
+import com.karpur.wiremock.writebehind.WriteBehindOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(WireMockExtension.class)
+public class MoviesRestClientWriteBehindTest {
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+        .port(8088)
+        .notifier(new ConsoleNotifier(true));
+
+    MoviesRestClient moviesRestClient;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.create(String.format("http://localhost:%s", wireMockServer.port()));
+        moviesRestClient = new MoviesRestClient(webClient);
+
+        stubFor(put(urlPathMatching("/movieservice/v1/movie/[0-9]+"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("movie.json")));
+        stubFor(post(urlPathEqualTo("/movieservice/v1/movie"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBodyFile("add-movie.json")));
+        stubFor(delete(urlPathMatching("/movieservice/v1/movie/[0-9]+"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.OK.value())
+                .withBody("Movie Deleted Successfully")));
+    }
+
+    @Test
+    void updateMovie_coalescedPerId() throws Exception {
+        //given
+        WriteBehindMoviesClient writeBehind = new WriteBehindMoviesClient(moviesRestClient, manualFlush().build());
+
+        //when
+        CompletableFuture<Movie> first = writeBehind.updateMovie(1, movie("first cast"));
+        CompletableFuture<Movie> second = writeBehind.updateMovie(1, movie("second cast"));
+        CompletableFuture<Movie> other = writeBehind.updateMovie(2, movie("other cast"));
+        assertEquals(2, writeBehind.getPendingCount());
+        writeBehind.flush().get(5, TimeUnit.SECONDS);
+
+        //then
+        assertNotNull(first.get());
+        assertSame(first.get(), second.get());
+        assertNotNull(other.get());
+        verify(exactly(1), putRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .withRequestBody(matchingJsonPath("$.cast", equalTo("second cast"))));
+        verify(exactly(1), putRequestedFor(urlPathEqualTo("/movieservice/v1/movie/2")));
+        assertEquals(0, writeBehind.getPendingCount());
+        writeBehind.close();
+    }
+
+    @Test
+    void deleteMovieById_supersedesPendingUpdates() throws Exception {
+        //given
+        WriteBehindMoviesClient writeBehind = new WriteBehindMoviesClient(moviesRestClient, manualFlush().build());
+
+        //when
+        CompletableFuture<Movie> update = writeBehind.updateMovie(1, movie("first cast"));
+        CompletableFuture<String> delete = writeBehind.deleteMovieById(1);
+        writeBehind.close();
+
+        //then
+        assertNull(update.get());
+        assertEquals("Movie Deleted Successfully", delete.get());
+        verify(exactly(0), putRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1")));
+        verify(exactly(1), deleteRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1")));
+    }
+
+    @Test
+    void addNewMovie_flushedOnSizeThreshold() throws Exception {
+        //given
+        WriteBehindMoviesClient writeBehind = new WriteBehindMoviesClient(moviesRestClient, manualFlush()
+            .maxPendingWrites(2)
+            .build());
+
+        //when
+        CompletableFuture<Movie> first = writeBehind.addNewMovie(movie("first cast"));
+        CompletableFuture<Movie> second = writeBehind.addNewMovie(movie("first cast"));
+
+        //then
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        verify(exactly(2), postRequestedFor(urlPathEqualTo("/movieservice/v1/movie")));
+        writeBehind.close();
+    }
+
+    @Test
+    void updateMovie_flushedOnInterval() throws Exception {
+        //given
+        WriteBehindMoviesClient writeBehind = new WriteBehindMoviesClient(moviesRestClient, WriteBehindOptions.builder()
+            .flushInterval(Duration.ofMillis(50))
+            .build());
+
+        //when
+        CompletableFuture<Movie> update = writeBehind.updateMovie(1, movie("first cast"));
+
+        //then
+        assertNotNull(update.get(5, TimeUnit.SECONDS));
+        writeBehind.close();
+    }
+
+    @Test
+    void updateMovie_failureCompletesExceptionally() throws Exception {
+        //given
+        stubFor(put(urlPathEqualTo("/movieservice/v1/movie/404"))
+            .willReturn(WireMock.aResponse()
+                .withStatus(HttpStatus.NOT_FOUND.value())));
+        WriteBehindMoviesClient writeBehind = new WriteBehindMoviesClient(moviesRestClient, manualFlush().build());
+
+        //when
+        CompletableFuture<Movie> update = writeBehind.updateMovie(404, movie("first cast"));
+        writeBehind.close();
+
+        //then
+        ExecutionException ex = assertThrows(ExecutionException.class, update::get);
+        assertTrue(ex.getCause() instanceof MovieErrorResponse);
+    }
+
+    @Test
+    void logFile_replaysUnsentWrites(@TempDir Path tempDir) throws Exception {
+        //given
+        Path logFile = tempDir.resolve("movies-write-behind.log");
+        WriteBehindMoviesClient crashed = new WriteBehindMoviesClient(moviesRestClient, manualFlush()
+            .logFile(logFile)
+            .syncLog(true)
+            .build());
+        crashed.updateMovie(1, movie("first cast"));
+        crashed.updateMovie(1, movie("second cast"));
+        crashed.deleteMovieById(2);
+
+        //when
+        WriteBehindMoviesClient restarted = new WriteBehindMoviesClient(moviesRestClient, manualFlush()
+            .logFile(logFile)
+            .build());
+        assertEquals(2, restarted.getPendingCount());
+        restarted.close();
+
+        //then
+        verify(exactly(1), putRequestedFor(urlPathEqualTo("/movieservice/v1/movie/1"))
+            .withRequestBody(matchingJsonPath("$.cast", equalTo("second cast"))));
+        verify(exactly(1), deleteRequestedFor(urlPathEqualTo("/movieservice/v1/movie/2")));
+
+        //when
+        WriteBehindMoviesClient afterClose = new WriteBehindMoviesClient(moviesRestClient, manualFlush()
+            .logFile(logFile)
+            .build());
+
+        //then
+        assertEquals(0, afterClose.getPendingCount());
+        afterClose.close();
+    }
+
+    @Test
+    void logFile_compactedOnceWritesAreDone(@TempDir Path tempDir) throws Exception {
+        //given
+        Path logFile = tempDir.resolve("movies-write-behind.log");
+        WriteBehindMoviesClient writeBehindClient = new WriteBehindMoviesClient(moviesRestClient, manualFlush()
+            .logFile(logFile)
+            .maxLogEntries(4)
+            .build());
+        for (int i = 1; i <= 3; i++) {
+            writeBehindClient.updateMovie(i, movie("cast " + i));
+        }
+        assertEquals(3, Files.readAllLines(logFile).size());
+
+        //when
+        writeBehindClient.flush().get(5, TimeUnit.SECONDS);
+
+        //then - 3 writes and 3 DONE markers would be 6 lines
+        assertEquals(0, Files.readAllLines(logFile).size());
+        writeBehindClient.updateMovie(4, movie("cast 4"));
+        assertEquals(1, Files.readAllLines(logFile).size());
+        writeBehindClient.close();
+    }
+
+    private static WriteBehindOptions.WriteBehindOptionsBuilder manualFlush() {
+        return WriteBehindOptions.builder()
+            .flushInterval(Duration.ofHours(1));
+    }
+
+    private static Movie movie(String cast) {
+        return new Movie(null, "Batman Begins", 2005, cast, LocalDate.of(2005, 6, 15));
+    }
+}
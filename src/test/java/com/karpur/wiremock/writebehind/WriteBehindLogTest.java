@@ -0,0 +1,44 @@
+package com.karpur.wiremock.writebehind;
+
+import com.karpur.wiremock.dto.Movie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WriteBehindLogTest {
+
+    @Test
+    void recover_crashRightAfterRecovery(@TempDir Path tempDir) throws Exception {
+        //given - a log left behind with two writes that never got their DONE marker
+        Path file = tempDir.resolve("movies-write-behind.log");
+        WriteBehindLog crashed = new WriteBehindLog(file, true, 1000);
+        crashed.recover();
+        crashed.append(new WriteLogEntry(0, "UPDATE", 1, movie("first cast")));
+        crashed.append(new WriteLogEntry(1, "UPDATE", 2, movie("second cast")));
+        crashed.append(new WriteLogEntry(2, "DELETE", 3, null));
+        crashed.done(Collections.singletonList(1L));
+
+        //when - recovered, then the process dies before anything else is logged
+        List<WriteLogEntry> recovered = new WriteBehindLog(file, true, 1000).recover();
+        WriteBehindLog reopened = new WriteBehindLog(file, true, 1000);
+        List<WriteLogEntry> recoveredAgain = reopened.recover();
+        reopened.close();
+
+        //then
+        assertEquals(2, recovered.size());
+        assertEquals(recovered, recoveredAgain);
+        assertEquals(0, recoveredAgain.get(0).getSeq());
+        assertEquals("first cast", recoveredAgain.get(0).getMovie().getCast());
+        assertEquals(2, recoveredAgain.get(1).getSeq());
+    }
+
+    private static Movie movie(String cast) {
+        return new Movie(null, "Batman Begins", 2005, cast, LocalDate.of(2005, 6, 15));
+    }
+}